@@ -80,12 +80,17 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.DELETE, "/api/v1/reviews/**").authenticated()
 
                         .requestMatchers(HttpMethod.POST,   "/api/v1/users/*/watchlist").authenticated()
+                        .requestMatchers(HttpMethod.POST,   "/api/v1/users/*/watchlist/bulk").authenticated()
                         .requestMatchers(HttpMethod.DELETE, "/api/v1/users/*/watchlist/**").authenticated()
                         .requestMatchers(HttpMethod.GET,    "/api/v1/users/*/watchlist").authenticated()
+                        .requestMatchers(HttpMethod.GET,    "/api/v1/users/*/recommendations").authenticated()
 
                         .requestMatchers(HttpMethod.POST,   "/api/v1/files/upload").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET,    "/api/v1/files/**").authenticated()
 
+                        .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/metrics/**").hasRole("ADMIN")
+
 
 
                         .anyRequest().authenticated()
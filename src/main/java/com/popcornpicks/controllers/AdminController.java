@@ -0,0 +1,82 @@
+package com.popcornpicks.controllers;
+
+import com.popcornpicks.dto.ImportResponse;
+import com.popcornpicks.dto.SimilarityJobResponse;
+import com.popcornpicks.service.MovieExportService;
+import com.popcornpicks.service.MovieImportService;
+import com.popcornpicks.service.ReviewImportService;
+import com.popcornpicks.service.ReviewService;
+import com.popcornpicks.service.SimilarMoviesService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/admin")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminController {
+
+    private final ReviewService reviewService;
+    private final ReviewImportService reviewImportService;
+    private final MovieImportService movieImportService;
+    private final MovieExportService movieExportService;
+    private final SimilarMoviesService similarMoviesService;
+
+    @Autowired
+    public AdminController(ReviewService reviewService,
+                           ReviewImportService reviewImportService,
+                           MovieImportService movieImportService,
+                           MovieExportService movieExportService,
+                           SimilarMoviesService similarMoviesService) {
+        this.reviewService = reviewService;
+        this.reviewImportService = reviewImportService;
+        this.movieImportService = movieImportService;
+        this.movieExportService = movieExportService;
+        this.similarMoviesService = similarMoviesService;
+    }
+
+
+    @PostMapping("/ratings/reconcile")
+    public Map<String, Integer> reconcileRatings() {
+        int moviesUpdated = reviewService.reconcileRatingAggregates();
+        return Map.of("moviesUpdated", moviesUpdated);
+    }
+
+
+    // body is read straight from the request stream, one review per line
+    @PostMapping(value = "/reviews:import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ImportResponse importReviews(HttpServletRequest request) throws IOException {
+        return reviewImportService.importReviews(request.getInputStream());
+    }
+
+
+    // one MovieRequest per line, inserted in JDBC batches
+    @PostMapping(value = "/movies:import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ImportResponse importMovies(HttpServletRequest request) throws IOException {
+        return movieImportService.importMovies(request.getInputStream());
+    }
+
+
+    // written on an async thread straight from the database cursor, one movie per line
+    @GetMapping(value = "/movies:export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportMovies() {
+        StreamingResponseBody body = movieExportService::exportMovies;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+
+    // runs on the request thread; full=false only recomputes movies whose ratings changed
+    @PostMapping("/similar-movies:recompute")
+    public SimilarityJobResponse recomputeSimilarMovies(@RequestParam(defaultValue = "false") boolean full) {
+        return similarMoviesService.recompute(full);
+    }
+}
@@ -1,18 +1,45 @@
 package com.popcornpicks.controllers;
+import com.popcornpicks.dto.FacetedPage;
+import com.popcornpicks.dto.LeaderboardEntryResponse;
+import com.popcornpicks.dto.MovieFilter;
 import com.popcornpicks.dto.MovieRequest;
 import com.popcornpicks.dto.MovieResponse;
+import com.popcornpicks.dto.RatingDistributionResponse;
+import com.popcornpicks.dto.SimilarMovieResponse;
+import com.popcornpicks.dto.SliceResponse;
+import com.popcornpicks.dto.SuggestionResponse;
+import com.popcornpicks.dto.TrendingEntryResponse;
 import com.popcornpicks.mapper.MovieMapper;
 import com.popcornpicks.models.Movie;
+import com.popcornpicks.repository.MovieVersion;
+import com.popcornpicks.service.CatalogVersionService;
+import com.popcornpicks.service.LeaderboardService;
 import com.popcornpicks.service.MovieService;
+import com.popcornpicks.service.SimilarMoviesService;
+import com.popcornpicks.service.SuggestionService;
+import com.popcornpicks.service.TrendingService;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.*;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 
 
@@ -22,13 +49,38 @@ import java.time.LocalDateTime;
 @RequestMapping("/api/v1/movies")
 public class MovieController {
 
+    // caches may keep responses but must revalidate them; the ETag makes that a cheap 304
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePublic();
+
+    private static final Map<String, TrendingService.Window> TRENDING_WINDOWS = Map.of(
+            "24h", TrendingService.Window.DAY,
+            "7d", TrendingService.Window.WEEK);
+    private static final int MAX_TRENDING = 100;
+    private static final int MAX_SIMILAR = 100;
+
     private final MovieService movieService;
     private final MovieMapper movieMapper;
+    private final LeaderboardService leaderboardService;
+    private final CatalogVersionService catalogVersionService;
+    private final SuggestionService suggestionService;
+    private final TrendingService trendingService;
+    private final SimilarMoviesService similarMoviesService;
 
     @Autowired
-    public MovieController(MovieService movieService, MovieMapper movieMapper) {
+    public MovieController(MovieService movieService,
+                           MovieMapper movieMapper,
+                           LeaderboardService leaderboardService,
+                           CatalogVersionService catalogVersionService,
+                           SuggestionService suggestionService,
+                           TrendingService trendingService,
+                           SimilarMoviesService similarMoviesService) {
         this.movieService = movieService;
         this.movieMapper = movieMapper;
+        this.leaderboardService = leaderboardService;
+        this.catalogVersionService = catalogVersionService;
+        this.suggestionService = suggestionService;
+        this.trendingService = trendingService;
+        this.similarMoviesService = similarMoviesService;
     }
 
 
@@ -36,20 +88,130 @@ public class MovieController {
     public Page<MovieResponse> list(
             @RequestParam(required = false) String title,
             @RequestParam(required = false) String genre,
+            @RequestParam(required = false) List<String> genres,
+            @RequestParam(defaultValue = "any") String genreMatch,
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) Integer yearFrom,
+            @RequestParam(required = false) Integer yearTo,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdAfter,
+            @RequestParam(required = false) List<String> facets,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            Pageable pageable,
+            WebRequest webRequest,
+            HttpServletResponse response
+    ) {
+        if (catalogNotModified(webRequest, response)) {
+            return null;
+        }
+        MovieFilter filter = toFilter(title, genre, genres, genreMatch, year, yearFrom, yearTo, minRating, createdAfter);
+        checkFuzzy(fuzzy, filter, facets);
+        Set<MovieFilter.Facet> requested = toFacets(facets, filter);
+        Page<Movie> page = fuzzy
+                ? movieService.searchByTitleFuzzy(title, pageable)
+                : isTitleOnly(filter)
+                ? movieService.searchByTitle(title, pageable)
+                : movieService.search(filter, pageable);
+        Page<MovieResponse> dtos = page.map(movieMapper::toDto);
+        if (requested.isEmpty()) {
+            return dtos;
+        }
+
+        // counts for the whole filtered set, so the UI does not need a request per facet value
+        Map<String, Map<String, Long>> counts = new LinkedHashMap<>();
+        movieService.getFacets(filter, requested)
+                .forEach((facet, values) -> counts.put(facet.name().toLowerCase(Locale.ROOT), values));
+        return new FacetedPage<>(dtos, counts);
+    }
+
+    // infinite scroll: same filters, but hasNext instead of totals, so no count query runs
+    @GetMapping(params = "withTotal=false")
+    public SliceResponse<MovieResponse> listSlice(
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String genre,
+            @RequestParam(required = false) List<String> genres,
+            @RequestParam(defaultValue = "any") String genreMatch,
             @RequestParam(required = false) Integer year,
-            Pageable pageable
+            @RequestParam(required = false) Integer yearFrom,
+            @RequestParam(required = false) Integer yearTo,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdAfter,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            Pageable pageable,
+            WebRequest webRequest,
+            HttpServletResponse response
     ) {
-        Page<Movie> page;
-        if (title != null) {
-            page = movieService.searchByTitle(title, pageable);
-        } else if (genre != null) {
-            page = movieService.filterByGenre(genre, pageable);
-        } else if (year != null) {
-            page = movieService.filterByYear(year, pageable);
-        } else {
-            page = movieService.getAllMovies(pageable);
+        if (catalogNotModified(webRequest, response)) {
+            return null;
+        }
+        MovieFilter filter = toFilter(title, genre, genres, genreMatch, year, yearFrom, yearTo, minRating, createdAfter);
+        checkFuzzy(fuzzy, filter, List.of());
+        Slice<Movie> slice = fuzzy
+                ? movieService.searchByTitleFuzzy(title, pageable)
+                : isTitleOnly(filter)
+                ? movieService.searchByTitleSlice(title, pageable)
+                : movieService.searchSlice(filter, pageable);
+        return new SliceResponse<>(
+                slice.getContent().stream().map(movieMapper::toDto).toList(),
+                slice.getNumber(),
+                slice.getSize(),
+                slice.hasNext()
+        );
+    }
+
+    @GetMapping("/genres")
+    public Map<String, Integer> genreCounts(WebRequest webRequest, HttpServletResponse response) {
+        if (catalogNotModified(webRequest, response)) {
+            return null;
+        }
+        return movieService.getGenreCounts();
+    }
+
+    @GetMapping("/top")
+    public Page<LeaderboardEntryResponse> top(
+            @RequestParam(required = false) String genre,
+            Pageable pageable,
+            WebRequest webRequest,
+            HttpServletResponse response
+    ) {
+        if (catalogNotModified(webRequest, response)) {
+            return null;
+        }
+        return leaderboardService.getTopMovies(genre, pageable);
+    }
+
+    @GetMapping("/suggest")
+    public List<SuggestionResponse> suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit,
+            WebRequest webRequest,
+            HttpServletResponse response
+    ) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be at least 1");
+        }
+        if (catalogNotModified(webRequest, response)) {
+            return null;
+        }
+        return suggestionService.suggest(q, limit);
+    }
+
+    // no catalog ETag: activity moves the ranking without changing the catalog
+    @GetMapping("/trending")
+    public List<TrendingEntryResponse> trending(
+            @RequestParam(defaultValue = "24h") String window,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        TrendingService.Window parsed = TRENDING_WINDOWS.get(window.toLowerCase(Locale.ROOT));
+        if (parsed == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "window must be 24h or 7d");
+        }
+        if (limit < 1 || limit > MAX_TRENDING) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_TRENDING);
         }
-        return page.map(movieMapper::toDto);
+        return trendingService.getTrending(parsed, limit);
     }
 
     @GetMapping("/order-by-date")
@@ -76,12 +238,37 @@ public class MovieController {
 
 
     @GetMapping("/{id}")
-    public MovieResponse getById(@PathVariable Long id) {
+    public MovieResponse getById(@PathVariable Long id, WebRequest webRequest, HttpServletResponse response) {
+        if (movieNotModified(id, webRequest, response)) {
+            return null;
+        }
         Movie movie = movieService.getMovieById(id);
         return movieMapper.toDto(movie);
     }
 
 
+    @GetMapping("/{id}/ratings/distribution")
+    public RatingDistributionResponse getRatingDistribution(@PathVariable Long id,
+                                                            WebRequest webRequest,
+                                                            HttpServletResponse response) {
+        if (movieNotModified(id, webRequest, response)) {
+            return null;
+        }
+        Movie movie = movieService.getMovieById(id);
+        return movieMapper.toDistributionDto(movie);
+    }
+
+    // precomputed by the similarity job, refreshed between runs only by deletes
+    @GetMapping("/{id}/similar")
+    public List<SimilarMovieResponse> getSimilar(@PathVariable Long id,
+                                                 @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_SIMILAR) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_SIMILAR);
+        }
+        return similarMoviesService.getSimilar(id, limit);
+    }
+
+
     @PostMapping
     public ResponseEntity<MovieResponse> create(
             @Valid @RequestBody MovieRequest request
@@ -111,6 +298,89 @@ public class MovieController {
     public void delete(@PathVariable Long id) {
         movieService.deleteMovie(id);
     }
-}
 
 
+    private static MovieFilter toFilter(String title, String genre, List<String> genres, String genreMatch,
+                                        Integer year, Integer yearFrom, Integer yearTo,
+                                        Double minRating, LocalDateTime createdAfter) {
+        MovieFilter filter = new MovieFilter();
+        filter.setTitle(title);
+        if (genres != null) {
+            filter.getGenres().addAll(genres);
+        }
+        if (genre != null) {
+            filter.getGenres().add(genre);
+        }
+        try {
+            filter.setGenreMatch(MovieFilter.GenreMatch.valueOf(genreMatch.toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "genreMatch must be any or all");
+        }
+        filter.setYearFrom(yearFrom != null ? yearFrom : year);
+        filter.setYearTo(yearTo != null ? yearTo : year);
+        filter.setMinRating(minRating);
+        filter.setCreatedAfter(createdAfter);
+        return filter;
+    }
+
+    // the typo-tolerant matching lives in the search index, which knows nothing of the other filters
+    private static void checkFuzzy(boolean fuzzy, MovieFilter filter, List<String> facets) {
+        if (!fuzzy) {
+            return;
+        }
+        if (!isTitleOnly(filter)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "fuzzy needs a title and no other filter");
+        }
+        if (facets != null && !facets.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "fuzzy cannot be combined with facets");
+        }
+    }
+
+    // a bare title query is a search: served by the title index and ordered by relevance
+    private static boolean isTitleOnly(MovieFilter filter) {
+        return filter.getTitle() != null && filter.getGenres().isEmpty()
+                && filter.getYearFrom() == null && filter.getYearTo() == null
+                && filter.getMinRating() == null && filter.getCreatedAfter() == null;
+    }
+
+    // facets are counted by the filter query, whose title match is not the search index's
+    private static Set<MovieFilter.Facet> toFacets(List<String> facets, MovieFilter filter) {
+        Set<MovieFilter.Facet> requested = EnumSet.noneOf(MovieFilter.Facet.class);
+        if (facets == null || facets.isEmpty()) {
+            return requested;
+        }
+        if (isTitleOnly(filter)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "facets cannot be combined with a title-only search");
+        }
+        for (String facet : facets) {
+            try {
+                requested.add(MovieFilter.Facet.valueOf(facet.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException ex) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "facets must be genre, year or rating");
+            }
+        }
+        return requested;
+    }
+
+    /**
+     * Sets ETag / Last-Modified for a response built from the whole catalog. True when the
+     * client's copy is still current, in which case a 304 has been prepared.
+     */
+    private boolean catalogNotModified(WebRequest webRequest, HttpServletResponse response) {
+        CatalogVersionService.Version version = catalogVersionService.getVersion();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE.getHeaderValue());
+        return webRequest.checkNotModified("catalog-" + version.tag(), version.lastModified());
+    }
+
+    /**
+     * Same for a response built from one movie row; costs one scalar query, not an entity load.
+     */
+    private boolean movieNotModified(Long id, WebRequest webRequest, HttpServletResponse response) {
+        MovieVersion version = movieService.getMovieVersion(id);
+        long lastModified = version.getUpdatedAt() == null
+                ? -1
+                : version.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE.getHeaderValue());
+        return webRequest.checkNotModified("movie-" + id + "-v" + version.getVersion(), lastModified);
+    }
+}
@@ -1,42 +1,40 @@
 package com.popcornpicks.controllers;
 
+import com.popcornpicks.dto.CursorPageResponse;
 import com.popcornpicks.dto.ReviewRequest;
 import com.popcornpicks.dto.ReviewUpdateRequest;
 import com.popcornpicks.dto.ReviewResponse;
+import com.popcornpicks.dto.SliceResponse;
 import com.popcornpicks.mapper.ReviewMapper;
-import com.popcornpicks.models.Movie;
 import com.popcornpicks.models.Review;
-import com.popcornpicks.models.User;
-import com.popcornpicks.service.MovieService;
 import com.popcornpicks.service.ReviewService;
-import com.popcornpicks.service.UserService;
+import com.popcornpicks.utils.KeysetCursor;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/reviews")
 public class ReviewController {
 
+    private static final int MAX_CURSOR_LIMIT = 100;
+
     private final ReviewService reviewService;
-    private final UserService userService;
-    private final MovieService movieService;
     private final ReviewMapper reviewMapper;
 
     @Autowired
     public ReviewController(
             ReviewService reviewService,
-            UserService userService,
-            MovieService movieService,
             ReviewMapper reviewMapper
     ) {
         this.reviewService = reviewService;
-        this.userService = userService;
-        this.movieService = movieService;
         this.reviewMapper = reviewMapper;
     }
 
@@ -45,16 +43,9 @@ public class ReviewController {
     public ResponseEntity<ReviewResponse> create(
             @Valid @RequestBody ReviewRequest request
     ) {
-
-        User user = userService.findById(request.getUserId())
-                .orElseThrow(() ->
-                        new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found")
-                );
-        Movie movie = movieService.getMovieById(request.getMovieId());
-
-
+        // unknown user or movie ids surface from the insert itself as ResourceNotFoundException
         Review created = reviewService.createReview(
-                user.getId(), movie.getId(),
+                request.getUserId(), request.getMovieId(),
                 request.getRating(), request.getComment()
         );
 
@@ -91,7 +82,7 @@ public class ReviewController {
             @RequestParam(required = false) Long userId,
             Pageable pageable
     ) {
-        Page<Review> page;
+        Page<ReviewResponse> page;
         if (movieId != null) {
             page = reviewService.getReviewsByMovie(movieId, pageable);
         } else if (userId != null) {
@@ -102,6 +93,80 @@ public class ReviewController {
                     "Must provide movieId or userId"
             );
         }
-        return page.map(reviewMapper::toDto);
+        return page;
+    }
+
+
+    // infinite scroll without keyset cursors: offset pages with hasNext, no count query
+    @GetMapping(params = {"withTotal=false", "!limit"})
+    public SliceResponse<ReviewResponse> listSlice(
+            @RequestParam(required = false) Long movieId,
+            @RequestParam(required = false) Long userId,
+            Pageable pageable
+    ) {
+        Slice<ReviewResponse> slice;
+        if (movieId != null) {
+            slice = reviewService.getReviewSliceByMovie(movieId, pageable);
+        } else if (userId != null) {
+            slice = reviewService.getReviewSliceByUser(userId, pageable);
+        } else {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Must provide movieId or userId"
+            );
+        }
+        return new SliceResponse<>(
+                slice.getContent(),
+                slice.getNumber(),
+                slice.getSize(),
+                slice.hasNext()
+        );
+    }
+
+
+    @GetMapping(params = "limit")
+    public CursorPageResponse<ReviewResponse> listByCursor(
+            @RequestParam(required = false) Long movieId,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam int limit
+    ) {
+        if (limit < 1 || limit > MAX_CURSOR_LIMIT) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "limit must be between 1 and " + MAX_CURSOR_LIMIT
+            );
+        }
+        KeysetCursor cursor;
+        try {
+            cursor = after != null ? KeysetCursor.decode(after) : null;
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", ex);
+        }
+
+        Slice<ReviewResponse> slice;
+        if (movieId != null) {
+            slice = reviewService.getReviewsByMovieAfter(movieId, cursor, limit);
+        } else if (userId != null) {
+            slice = reviewService.getReviewsByUserAfter(userId, cursor, limit);
+        } else {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Must provide movieId or userId"
+            );
+        }
+
+        List<ReviewResponse> content = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            ReviewResponse last = content.get(content.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPageResponse<>(
+                content,
+                limit,
+                slice.hasNext(),
+                nextCursor
+        );
     }
 }
@@ -1,10 +1,12 @@
 package com.popcornpicks.controllers;
 
+import com.popcornpicks.dto.RecommendationResponse;
 import com.popcornpicks.dto.UserRegistrationRequest;
 import com.popcornpicks.dto.UserResponse;
 import com.popcornpicks.exceptions.EmailAlreadyExistsException;
 import com.popcornpicks.mapper.UserMapper;
 import com.popcornpicks.models.User;
+import com.popcornpicks.service.RecommendationService;
 import com.popcornpicks.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -13,6 +15,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 import jakarta.validation.Valid;
 import org.springframework.validation.annotation.Validated;
+import java.util.List;
 import java.util.Optional;
 
 @Validated
@@ -20,14 +23,19 @@ import java.util.Optional;
 @RequestMapping("/api/v1")
 public class UserController {
 
+    private static final int MAX_RECOMMENDATIONS = 50;
+
     private final UserService userService;
     private final UserMapper userMapper;
+    private final RecommendationService recommendationService;
 
     @Autowired
     public UserController(UserService userService,
-                          UserMapper userMapper) {
+                          UserMapper userMapper,
+                          RecommendationService recommendationService) {
         this.userService = userService;
         this.userMapper = userMapper;
+        this.recommendationService = recommendationService;
     }
 
 
@@ -63,4 +71,17 @@ public class UserController {
             );
         }
     }
+
+
+    @GetMapping("/users/{id}/recommendations")
+    public List<RecommendationResponse> getRecommendations(@PathVariable Long id,
+                                                           @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_RECOMMENDATIONS) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "limit must be between 1 and " + MAX_RECOMMENDATIONS
+            );
+        }
+        return recommendationService.getRecommendations(id, limit);
+    }
 }
@@ -1,16 +1,22 @@
 package com.popcornpicks.controllers;
 
 import com.popcornpicks.dto.PageResponse;
+import com.popcornpicks.dto.SliceResponse;
+import com.popcornpicks.dto.WatchlistBulkRequest;
+import com.popcornpicks.dto.WatchlistBulkResponse;
 import com.popcornpicks.dto.WatchlistResponse;
-import com.popcornpicks.mapper.WatchlistMapper;
-import com.popcornpicks.models.WatchlistItem;
 import com.popcornpicks.service.WatchlistService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 
 @RestController
@@ -18,12 +24,10 @@ import java.util.List;
 public class WatchlistController {
 
     private final WatchlistService service;
-    private final WatchlistMapper mapper;
 
     @Autowired
-    public WatchlistController(WatchlistService service, WatchlistMapper mapper) {
+    public WatchlistController(WatchlistService service) {
         this.service = service;
-        this.mapper  = mapper;
     }
 
 
@@ -32,8 +36,23 @@ public class WatchlistController {
             @PathVariable Long userId,
             @RequestParam Long movieId
     ) {
-        WatchlistItem item = service.addToWatchlist(userId, movieId);
-        return new ResponseEntity<>(mapper.toDto(item), HttpStatus.CREATED);
+        WatchlistService.AddResult result = service.addToWatchlist(userId, movieId);
+        // adding a movie that is already on the watchlist is a no-op, not a new resource
+        return new ResponseEntity<>(result.item(), result.inserted() ? HttpStatus.CREATED : HttpStatus.OK);
+    }
+
+
+    @PostMapping("/bulk")
+    public WatchlistBulkResponse bulkUpdate(
+            @PathVariable Long userId,
+            @Valid @RequestBody WatchlistBulkRequest request
+    ) {
+        List<Long> add = request.getAdd() != null ? request.getAdd() : List.of();
+        List<Long> remove = request.getRemove() != null ? request.getRemove() : List.of();
+        if (!Collections.disjoint(new HashSet<>(add), remove)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "a movie cannot be both added and removed");
+        }
+        return service.bulkUpdate(userId, add, remove);
     }
 
 
@@ -52,20 +71,30 @@ public class WatchlistController {
             @PathVariable Long userId,
             Pageable pageable
     ) {
-        Page<WatchlistItem> page = service.getWatchlist(userId, pageable);
-        List<WatchlistResponse> dtos = page.getContent()
-                .stream()
-                .map(mapper::toDto)
-                .toList();
-
+        Page<WatchlistResponse> page = service.getWatchlist(userId, pageable);
         return new PageResponse<>(
-                dtos,
+                page.getContent(),
                 page.getNumber(),
                 page.getSize(),
                 page.getTotalElements(),
                 page.getTotalPages()
         );
     }
+
+
+    @GetMapping(params = "withTotal=false")
+    public SliceResponse<WatchlistResponse> listSlice(
+            @PathVariable Long userId,
+            Pageable pageable
+    ) {
+        Slice<WatchlistResponse> slice = service.getWatchlistSlice(userId, pageable);
+        return new SliceResponse<>(
+                slice.getContent(),
+                slice.getNumber(),
+                slice.getSize(),
+                slice.hasNext()
+        );
+    }
     }
 
 
@@ -0,0 +1,34 @@
+package com.popcornpicks.dto;
+
+import java.util.List;
+
+public class CursorPageResponse<T> {
+    private List<T> content;
+    private int limit;
+    private boolean hasNext;
+    private String nextCursor;   // pass back as ?after= to get the next page, null on the last page
+
+    public CursorPageResponse() {}
+
+    public CursorPageResponse(List<T> content,
+                              int limit,
+                              boolean hasNext,
+                              String nextCursor) {
+        this.content    = content;
+        this.limit      = limit;
+        this.hasNext    = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getContent() { return content; }
+    public void setContent(List<T> content) { this.content = content; }
+
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+
+    public boolean isHasNext() { return hasNext; }
+    public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -0,0 +1,21 @@
+package com.popcornpicks.dto;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.Map;
+
+/**
+ * A page serialized like any other, plus a {@code facets} object: facet name to value to count.
+ */
+public class FacetedPage<T> extends PageImpl<T> {
+
+    private final Map<String, Map<String, Long>> facets;
+
+    public FacetedPage(Page<T> page, Map<String, Map<String, Long>> facets) {
+        super(page.getContent(), page.getPageable(), page.getTotalElements());
+        this.facets = facets;
+    }
+
+    public Map<String, Map<String, Long>> getFacets() { return facets; }
+}
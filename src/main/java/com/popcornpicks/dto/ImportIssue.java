@@ -0,0 +1,24 @@
+package com.popcornpicks.dto;
+
+public class ImportIssue {
+    private long line;
+    private String status;   // DUPLICATE or REJECTED
+    private String reason;
+
+    public ImportIssue() { }
+
+    public ImportIssue(long line, String status, String reason) {
+        this.line = line;
+        this.status = status;
+        this.reason = reason;
+    }
+
+    public long getLine() { return line; }
+    public void setLine(long line) { this.line = line; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getReason() { return reason; }
+    public void setReason(String reason) { this.reason = reason; }
+}
@@ -0,0 +1,33 @@
+package com.popcornpicks.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportResponse {
+    private long received;
+    private long imported;
+    private long duplicates;
+    private long rejected;
+    private List<ImportIssue> issues = new ArrayList<>();   // capped, see issuesTruncated
+    private boolean issuesTruncated;
+
+    public ImportResponse() { }
+
+    public long getReceived() { return received; }
+    public void setReceived(long received) { this.received = received; }
+
+    public long getImported() { return imported; }
+    public void setImported(long imported) { this.imported = imported; }
+
+    public long getDuplicates() { return duplicates; }
+    public void setDuplicates(long duplicates) { this.duplicates = duplicates; }
+
+    public long getRejected() { return rejected; }
+    public void setRejected(long rejected) { this.rejected = rejected; }
+
+    public List<ImportIssue> getIssues() { return issues; }
+    public void setIssues(List<ImportIssue> issues) { this.issues = issues; }
+
+    public boolean isIssuesTruncated() { return issuesTruncated; }
+    public void setIssuesTruncated(boolean issuesTruncated) { this.issuesTruncated = issuesTruncated; }
+}
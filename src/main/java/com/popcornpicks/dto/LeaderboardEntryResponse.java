@@ -0,0 +1,46 @@
+package com.popcornpicks.dto;
+
+public class LeaderboardEntryResponse {
+    private int rank;
+    private Long movieId;
+    private String title;
+    private double score;          // Bayesian weighted rating the board is ordered by
+    private double averageRating;
+    private long ratingCount;
+
+    public LeaderboardEntryResponse() { }
+
+    public LeaderboardEntryResponse(
+            int rank,
+            Long movieId,
+            String title,
+            double score,
+            double averageRating,
+            long ratingCount
+    ) {
+        this.rank = rank;
+        this.movieId = movieId;
+        this.title = title;
+        this.score = score;
+        this.averageRating = averageRating;
+        this.ratingCount = ratingCount;
+    }
+
+    public int getRank() { return rank; }
+    public void setRank(int rank) { this.rank = rank; }
+
+    public Long getMovieId() { return movieId; }
+    public void setMovieId(Long movieId) { this.movieId = movieId; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+
+    public double getAverageRating() { return averageRating; }
+    public void setAverageRating(double averageRating) { this.averageRating = averageRating; }
+
+    public long getRatingCount() { return ratingCount; }
+    public void setRatingCount(long ratingCount) { this.ratingCount = ratingCount; }
+}
@@ -0,0 +1,48 @@
+package com.popcornpicks.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria for {@code MovieService.search}. Every field is optional; the ones that are set
+ * are combined with AND into a single query.
+ */
+public class MovieFilter {
+
+    public enum GenreMatch { ANY, ALL }
+
+    /** Aggregations that can be returned next to a page: per genre, per decade, per whole star. */
+    public enum Facet { GENRE, YEAR, RATING }
+
+    private String title;                      // every word must appear in the title
+    private List<String> genres = new ArrayList<>();
+    private GenreMatch genreMatch = GenreMatch.ANY;
+    private Integer yearFrom;                  // inclusive
+    private Integer yearTo;                    // inclusive
+    private Double minRating;                  // inclusive, on the average rating
+    private LocalDateTime createdAfter;        // exclusive
+
+    public MovieFilter() { }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public List<String> getGenres() { return genres; }
+    public void setGenres(List<String> genres) { this.genres = genres == null ? new ArrayList<>() : genres; }
+
+    public GenreMatch getGenreMatch() { return genreMatch; }
+    public void setGenreMatch(GenreMatch genreMatch) { this.genreMatch = genreMatch == null ? GenreMatch.ANY : genreMatch; }
+
+    public Integer getYearFrom() { return yearFrom; }
+    public void setYearFrom(Integer yearFrom) { this.yearFrom = yearFrom; }
+
+    public Integer getYearTo() { return yearTo; }
+    public void setYearTo(Integer yearTo) { this.yearTo = yearTo; }
+
+    public Double getMinRating() { return minRating; }
+    public void setMinRating(Double minRating) { this.minRating = minRating; }
+
+    public LocalDateTime getCreatedAfter() { return createdAfter; }
+    public void setCreatedAfter(LocalDateTime createdAfter) { this.createdAfter = createdAfter; }
+}
@@ -0,0 +1,58 @@
+package com.popcornpicks.dto;
+
+public class RatingDistributionResponse {
+    private Long movieId;
+    private double averageRating;
+    private long ratingCount;
+    private long oneStar;
+    private long twoStar;
+    private long threeStar;
+    private long fourStar;
+    private long fiveStar;
+
+    public RatingDistributionResponse() { }
+
+    public RatingDistributionResponse(
+            Long movieId,
+            double averageRating,
+            long ratingCount,
+            long oneStar,
+            long twoStar,
+            long threeStar,
+            long fourStar,
+            long fiveStar
+    ) {
+        this.movieId = movieId;
+        this.averageRating = averageRating;
+        this.ratingCount = ratingCount;
+        this.oneStar = oneStar;
+        this.twoStar = twoStar;
+        this.threeStar = threeStar;
+        this.fourStar = fourStar;
+        this.fiveStar = fiveStar;
+    }
+
+    public Long getMovieId() { return movieId; }
+    public void setMovieId(Long movieId) { this.movieId = movieId; }
+
+    public double getAverageRating() { return averageRating; }
+    public void setAverageRating(double averageRating) { this.averageRating = averageRating; }
+
+    public long getRatingCount() { return ratingCount; }
+    public void setRatingCount(long ratingCount) { this.ratingCount = ratingCount; }
+
+    public long getOneStar() { return oneStar; }
+    public void setOneStar(long oneStar) { this.oneStar = oneStar; }
+
+    public long getTwoStar() { return twoStar; }
+    public void setTwoStar(long twoStar) { this.twoStar = twoStar; }
+
+    public long getThreeStar() { return threeStar; }
+    public void setThreeStar(long threeStar) { this.threeStar = threeStar; }
+
+    public long getFourStar() { return fourStar; }
+    public void setFourStar(long fourStar) { this.fourStar = fourStar; }
+
+    public long getFiveStar() { return fiveStar; }
+    public void setFiveStar(long fiveStar) { this.fiveStar = fiveStar; }
+}
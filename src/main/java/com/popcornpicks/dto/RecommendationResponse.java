@@ -0,0 +1,29 @@
+package com.popcornpicks.dto;
+
+public class RecommendationResponse {
+    private int rank;
+    private Long movieId;
+    private String title;
+    private double score;
+
+    public RecommendationResponse() { }
+
+    public RecommendationResponse(int rank, Long movieId, String title, double score) {
+        this.rank = rank;
+        this.movieId = movieId;
+        this.title = title;
+        this.score = score;
+    }
+
+    public int getRank() { return rank; }
+    public void setRank(int rank) { this.rank = rank; }
+
+    public Long getMovieId() { return movieId; }
+    public void setMovieId(Long movieId) { this.movieId = movieId; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+}
@@ -0,0 +1,36 @@
+package com.popcornpicks.dto;
+
+import java.time.LocalDateTime;
+
+public class ReviewImportRow {
+    private Long userId;
+    private Long movieId;
+    private Integer rating;
+    private String comment;
+    private LocalDateTime createdAt;   // optional, defaults to the import time
+
+    public ReviewImportRow() { }
+
+    public ReviewImportRow(Long userId, Long movieId, Integer rating, String comment, LocalDateTime createdAt) {
+        this.userId = userId;
+        this.movieId = movieId;
+        this.rating = rating;
+        this.comment = comment;
+        this.createdAt = createdAt;
+    }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getMovieId() { return movieId; }
+    public void setMovieId(Long movieId) { this.movieId = movieId; }
+
+    public Integer getRating() { return rating; }
+    public void setRating(Integer rating) { this.rating = rating; }
+
+    public String getComment() { return comment; }
+    public void setComment(String comment) { this.comment = comment; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,29 @@
+package com.popcornpicks.dto;
+
+public class SimilarMovieResponse {
+    private Long movieId;
+    private String title;
+    private int year;
+    private double similarity;
+
+    public SimilarMovieResponse() { }
+
+    public SimilarMovieResponse(Long movieId, String title, int year, double similarity) {
+        this.movieId = movieId;
+        this.title = title;
+        this.year = year;
+        this.similarity = similarity;
+    }
+
+    public Long getMovieId() { return movieId; }
+    public void setMovieId(Long movieId) { this.movieId = movieId; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public int getYear() { return year; }
+    public void setYear(int year) { this.year = year; }
+
+    public double getSimilarity() { return similarity; }
+    public void setSimilarity(double similarity) { this.similarity = similarity; }
+}
@@ -0,0 +1,26 @@
+package com.popcornpicks.dto;
+
+public class SimilarityJobResponse {
+    private boolean full;              // false: only movies whose ratings changed, and their co-rated movies
+    private long ratingsLoaded;
+    private long moviesRecomputed;
+    private long neighboursWritten;
+    private long elapsedMillis;
+
+    public SimilarityJobResponse() { }
+
+    public boolean isFull() { return full; }
+    public void setFull(boolean full) { this.full = full; }
+
+    public long getRatingsLoaded() { return ratingsLoaded; }
+    public void setRatingsLoaded(long ratingsLoaded) { this.ratingsLoaded = ratingsLoaded; }
+
+    public long getMoviesRecomputed() { return moviesRecomputed; }
+    public void setMoviesRecomputed(long moviesRecomputed) { this.moviesRecomputed = moviesRecomputed; }
+
+    public long getNeighboursWritten() { return neighboursWritten; }
+    public void setNeighboursWritten(long neighboursWritten) { this.neighboursWritten = neighboursWritten; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+}
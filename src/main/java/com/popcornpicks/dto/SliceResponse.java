@@ -0,0 +1,34 @@
+package com.popcornpicks.dto;
+
+import java.util.List;
+
+public class SliceResponse<T> {
+    private List<T> content;
+    private int page;
+    private int size;
+    private boolean hasNext;   // no totals: they would cost a count query per request
+
+    public SliceResponse() {}
+
+    public SliceResponse(List<T> content,
+                         int page,
+                         int size,
+                         boolean hasNext) {
+        this.content = content;
+        this.page    = page;
+        this.size    = size;
+        this.hasNext = hasNext;
+    }
+
+    public List<T> getContent() { return content; }
+    public void setContent(List<T> content) { this.content = content; }
+
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public boolean isHasNext() { return hasNext; }
+    public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
+}
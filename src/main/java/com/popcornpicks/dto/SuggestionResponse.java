@@ -0,0 +1,19 @@
+package com.popcornpicks.dto;
+
+public class SuggestionResponse {
+    private Long movieId;
+    private String title;
+
+    public SuggestionResponse() { }
+
+    public SuggestionResponse(Long movieId, String title) {
+        this.movieId = movieId;
+        this.title = title;
+    }
+
+    public Long getMovieId() { return movieId; }
+    public void setMovieId(Long movieId) { this.movieId = movieId; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+}
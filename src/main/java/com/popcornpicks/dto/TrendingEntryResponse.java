@@ -0,0 +1,39 @@
+package com.popcornpicks.dto;
+
+public class TrendingEntryResponse {
+    private int rank;
+    private Long movieId;
+    private String title;
+    private long reviews;          // new reviews in the window
+    private long watchlistAdds;    // watchlist additions in the window
+    private long score;
+
+    public TrendingEntryResponse() { }
+
+    public TrendingEntryResponse(int rank, Long movieId, String title, long reviews, long watchlistAdds, long score) {
+        this.rank = rank;
+        this.movieId = movieId;
+        this.title = title;
+        this.reviews = reviews;
+        this.watchlistAdds = watchlistAdds;
+        this.score = score;
+    }
+
+    public int getRank() { return rank; }
+    public void setRank(int rank) { this.rank = rank; }
+
+    public Long getMovieId() { return movieId; }
+    public void setMovieId(Long movieId) { this.movieId = movieId; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public long getReviews() { return reviews; }
+    public void setReviews(long reviews) { this.reviews = reviews; }
+
+    public long getWatchlistAdds() { return watchlistAdds; }
+    public void setWatchlistAdds(long watchlistAdds) { this.watchlistAdds = watchlistAdds; }
+
+    public long getScore() { return score; }
+    public void setScore(long score) { this.score = score; }
+}
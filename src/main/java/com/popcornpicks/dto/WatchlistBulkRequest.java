@@ -0,0 +1,29 @@
+package com.popcornpicks.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class WatchlistBulkRequest {
+
+    @Size(max = 1000, message = "at most 1000 movies can be added at once")
+    private List<@NotNull(message = "movie id cannot be null") Long> add = new ArrayList<>();
+
+    @Size(max = 1000, message = "at most 1000 movies can be removed at once")
+    private List<@NotNull(message = "movie id cannot be null") Long> remove = new ArrayList<>();
+
+    public WatchlistBulkRequest() { }
+
+    public WatchlistBulkRequest(List<Long> add, List<Long> remove) {
+        this.add = add;
+        this.remove = remove;
+    }
+
+    public List<Long> getAdd() { return add; }
+    public void setAdd(List<Long> add) { this.add = add; }
+
+    public List<Long> getRemove() { return remove; }
+    public void setRemove(List<Long> remove) { this.remove = remove; }
+}
@@ -0,0 +1,21 @@
+package com.popcornpicks.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class WatchlistBulkResponse {
+    private long added;
+    private long removed;
+    private List<WatchlistBulkResult> results = new ArrayList<>();   // one per distinct requested id, adds first
+
+    public WatchlistBulkResponse() { }
+
+    public long getAdded() { return added; }
+    public void setAdded(long added) { this.added = added; }
+
+    public long getRemoved() { return removed; }
+    public void setRemoved(long removed) { this.removed = removed; }
+
+    public List<WatchlistBulkResult> getResults() { return results; }
+    public void setResults(List<WatchlistBulkResult> results) { this.results = results; }
+}
@@ -0,0 +1,19 @@
+package com.popcornpicks.dto;
+
+public class WatchlistBulkResult {
+    private Long movieId;
+    private String status;   // ADDED, ALREADY_ON_WATCHLIST, MOVIE_NOT_FOUND, REMOVED or NOT_ON_WATCHLIST
+
+    public WatchlistBulkResult() { }
+
+    public WatchlistBulkResult(Long movieId, String status) {
+        this.movieId = movieId;
+        this.status = status;
+    }
+
+    public Long getMovieId() { return movieId; }
+    public void setMovieId(Long movieId) { this.movieId = movieId; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+}
@@ -0,0 +1,34 @@
+package com.popcornpicks.events;
+
+import com.popcornpicks.models.Movie;
+
+import java.util.List;
+
+/**
+ * Published by MovieServiceImpl whenever a movie is created, updated or deleted.
+ * Carries a detached snapshot so listeners never touch the persistence context.
+ */
+public record MovieChangedEvent(
+        Type type,
+        Long movieId,
+        String title,
+        int year,
+        List<String> genres,
+        long ratingSum,
+        long ratingCount
+) {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    public static MovieChangedEvent of(Type type, Movie movie) {
+        return new MovieChangedEvent(
+                type,
+                movie.getId(),
+                movie.getTitle(),
+                movie.getYear(),
+                movie.getGenres() == null ? List.of() : List.copyOf(movie.getGenres()),
+                movie.getRatingSum(),
+                movie.getRatingCount()
+        );
+    }
+}
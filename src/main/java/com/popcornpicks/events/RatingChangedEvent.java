@@ -0,0 +1,9 @@
+package com.popcornpicks.events;
+
+import com.popcornpicks.models.RatingDelta;
+
+/**
+ * Published by a RatingAggregator once a rating delta has been written to the movie row.
+ */
+public record RatingChangedEvent(Long movieId, RatingDelta delta) {
+}
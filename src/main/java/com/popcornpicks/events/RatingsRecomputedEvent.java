@@ -0,0 +1,19 @@
+package com.popcornpicks.events;
+
+import java.util.Collection;
+
+/**
+ * Published after rating aggregates were rebuilt from the reviews table instead of
+ * being updated by deltas, e.g. by reconciliation or a bulk import.
+ * @param movieIds the movies that were rebuilt, or null when every movie was
+ */
+public record RatingsRecomputedEvent(Collection<Long> movieIds) {
+
+    public static RatingsRecomputedEvent all() {
+        return new RatingsRecomputedEvent(null);
+    }
+
+    public boolean isAll() {
+        return movieIds == null;
+    }
+}
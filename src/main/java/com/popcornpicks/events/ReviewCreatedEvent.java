@@ -0,0 +1,7 @@
+package com.popcornpicks.events;
+
+/**
+ * Published by ReviewService when a user posts a new review (not on edits or bulk imports).
+ */
+public record ReviewCreatedEvent(Long reviewId, Long userId, Long movieId, int rating) {
+}
@@ -0,0 +1,7 @@
+package com.popcornpicks.events;
+
+/**
+ * Published by SimilarMoviesService after a run has replaced neighbour lists in movie_neighbours.
+ */
+public record SimilarMoviesRecomputedEvent(boolean full, long moviesRecomputed) {
+}
@@ -0,0 +1,7 @@
+package com.popcornpicks.events;
+
+/**
+ * Published by WatchlistService when a movie is added to a watchlist it was not already on.
+ */
+public record WatchlistItemAddedEvent(Long userId, Long movieId) {
+}
@@ -2,6 +2,7 @@ package com.popcornpicks.mapper;
 
 import com.popcornpicks.dto.MovieRequest;
 import com.popcornpicks.dto.MovieResponse;
+import com.popcornpicks.dto.RatingDistributionResponse;
 import com.popcornpicks.models.Movie;
 import org.springframework.stereotype.Component;
 
@@ -30,4 +31,18 @@ public class MovieMapper {
                 movie.getCreatedAt()
         );
     }
+
+
+    public RatingDistributionResponse toDistributionDto(Movie movie) {
+        return new RatingDistributionResponse(
+                movie.getId(),
+                movie.getAverageRating(),
+                movie.getRatingCount(),
+                movie.getOneStarCount(),
+                movie.getTwoStarCount(),
+                movie.getThreeStarCount(),
+                movie.getFourStarCount(),
+                movie.getFiveStarCount()
+        );
+    }
 }
@@ -0,0 +1,30 @@
+package com.popcornpicks.models;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * The single row behind the catalog ETag, shared by every application instance. Written and
+ * read with plain JDBC by the catalog version service; mapped so the schema is generated with
+ * the others.
+ */
+@Entity
+@Table(name = "catalog_version")
+public class CatalogVersion {
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public CatalogVersion() { }
+
+    public Integer getId() { return id; }
+    public long getVersion() { return version; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
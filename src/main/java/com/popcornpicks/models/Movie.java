@@ -1,18 +1,34 @@
 package com.popcornpicks.models;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+// an edit writes only the columns it changed, never the rating aggregates it happened to read
 @Entity
-@Table(name = "movies")
+@DynamicUpdate
+@Table(
+        name = "movies",
+        indexes = {
+                // range filters of MovieService.search
+                @Index(name = "idx_movies_year", columnList = "year"),
+                @Index(name = "idx_movies_average_rating", columnList = "average_rating"),
+                @Index(name = "idx_movies_created_at", columnList = "created_at")
+        }
+)
 public class Movie {
 
+    // pooled sequence instead of IDENTITY: ids are known before the insert, so Hibernate can
+    // batch movie and genre inserts, and bulk loads hit the sequence once per 1000 movies
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movies_seq")
+    @SequenceGenerator(name = "movies_seq", sequenceName = "movies_seq", allocationSize = 1000)
     private Long id;
 
     @Column(nullable = false)
@@ -24,10 +40,35 @@ public class Movie {
 
     private double averageRating;
 
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "rating_count", nullable = false)
+    private long ratingCount;
+
+    @Column(name = "one_star_count", nullable = false)
+    private long oneStarCount;
+
+    @Column(name = "two_star_count", nullable = false)
+    private long twoStarCount;
+
+    @Column(name = "three_star_count", nullable = false)
+    private long threeStarCount;
+
+    @Column(name = "four_star_count", nullable = false)
+    private long fourStarCount;
+
+    @Column(name = "five_star_count", nullable = false)
+    private long fiveStarCount;
+
+    // loaded for up to 100 movies of the session per query, so mapping a page of movies
+    // costs one genres query rather than one per movie
     @ElementCollection
+    @BatchSize(size = 100)
     @CollectionTable(
             name = "movie_genres",
-            joinColumns = @JoinColumn(name = "movie_id")
+            joinColumns = @JoinColumn(name = "movie_id"),
+            indexes = @Index(name = "idx_movie_genres_genre", columnList = "genre, movie_id")
     )
     @Column(name = "genre")
     private List<String> genres = new ArrayList<>();
@@ -36,6 +77,14 @@ public class Movie {
     @CreationTimestamp
     private LocalDateTime createdAt;
 
+    // bumped by every write to the row, rating aggregate updates included; served as the ETag
+    @Column(nullable = false)
+    private long version;
+
+    @Column(name = "updated_at")
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
     public Movie() { }
 
     public Movie(String title, int year, String posterPath, List<String> genres) {
@@ -64,12 +113,39 @@ public class Movie {
     public double getAverageRating() {
         return averageRating;
     }
+    public long getRatingSum() {
+        return ratingSum;
+    }
+    public long getRatingCount() {
+        return ratingCount;
+    }
+    public long getOneStarCount() {
+        return oneStarCount;
+    }
+    public long getTwoStarCount() {
+        return twoStarCount;
+    }
+    public long getThreeStarCount() {
+        return threeStarCount;
+    }
+    public long getFourStarCount() {
+        return fourStarCount;
+    }
+    public long getFiveStarCount() {
+        return fiveStarCount;
+    }
     public List<String> getGenres() {
         return genres;
     }
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
+    public long getVersion() {
+        return version;
+    }
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
 
 
     public void setId(Long id) {
@@ -90,9 +166,33 @@ public class Movie {
     public void setAverageRating(double averageRating) {
         this.averageRating = averageRating;
     }
+    public void setRatingSum(long ratingSum) {
+        this.ratingSum = ratingSum;
+    }
+    public void setRatingCount(long ratingCount) {
+        this.ratingCount = ratingCount;
+    }
+    public void setOneStarCount(long oneStarCount) {
+        this.oneStarCount = oneStarCount;
+    }
+    public void setTwoStarCount(long twoStarCount) {
+        this.twoStarCount = twoStarCount;
+    }
+    public void setThreeStarCount(long threeStarCount) {
+        this.threeStarCount = threeStarCount;
+    }
+    public void setFourStarCount(long fourStarCount) {
+        this.fourStarCount = fourStarCount;
+    }
+    public void setFiveStarCount(long fiveStarCount) {
+        this.fiveStarCount = fiveStarCount;
+    }
     public void setGenres(List<String> genres) {
         this.genres = genres;
     }
+    public void setVersion(long version) {
+        this.version = version;
+    }
 
 
 }
@@ -0,0 +1,55 @@
+package com.popcornpicks.models;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Checkpoint of one hour of trending activity for one movie. Written and read with plain
+ * JDBC by the trending service; mapped so the schema is generated with the others. There
+ * is deliberately no foreign key to movies: rows of deleted movies are simply ignored.
+ */
+@Entity
+@Table(name = "movie_activity_buckets")
+@IdClass(MovieActivityBucket.Key.class)
+public class MovieActivityBucket {
+
+    @Id
+    @Column(name = "movie_id")
+    private Long movieId;
+
+    @Id
+    @Column(name = "bucket_hour")
+    private long bucketHour;     // hours since the epoch, UTC
+
+    @Column(nullable = false)
+    private int reviews;
+
+    @Column(name = "watchlist_adds", nullable = false)
+    private int watchlistAdds;
+
+    public MovieActivityBucket() { }
+
+    public Long getMovieId() { return movieId; }
+    public long getBucketHour() { return bucketHour; }
+    public int getReviews() { return reviews; }
+    public int getWatchlistAdds() { return watchlistAdds; }
+
+    public static class Key implements Serializable {
+        private Long movieId;
+        private long bucketHour;
+
+        public Key() { }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && Objects.equals(movieId, other.movieId) && bucketHour == other.bucketHour;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(movieId, bucketHour);
+        }
+    }
+}
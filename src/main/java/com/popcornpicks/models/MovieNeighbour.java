@@ -0,0 +1,55 @@
+package com.popcornpicks.models;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * One precomputed entry of a movie's "similar movies" list, written in bulk by the similarity
+ * job. Keyed by (movie, rank) so a movie's list is one contiguous primary-key range scan. No
+ * foreign keys: a deleted neighbour is dropped by the join that reads the list.
+ */
+@Entity
+@Table(name = "movie_neighbours")
+@IdClass(MovieNeighbour.Key.class)
+public class MovieNeighbour {
+
+    @Id
+    @Column(name = "movie_id")
+    private Long movieId;
+
+    @Id
+    @Column(name = "neighbour_rank")
+    private short rank;          // 1 = most similar
+
+    @Column(name = "neighbour_id", nullable = false)
+    private Long neighbourId;
+
+    @Column(nullable = false)
+    private float similarity;
+
+    public MovieNeighbour() { }
+
+    public Long getMovieId() { return movieId; }
+    public short getRank() { return rank; }
+    public Long getNeighbourId() { return neighbourId; }
+    public float getSimilarity() { return similarity; }
+
+    public static class Key implements Serializable {
+        private Long movieId;
+        private short rank;
+
+        public Key() { }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && Objects.equals(movieId, other.movieId) && rank == other.rank;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(movieId, rank);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.popcornpicks.models;
+
+/**
+ * A change to the rating aggregates of one movie: the rating sum, the review count
+ * and the per-star counters. Deltas can be combined, so several review writes for the
+ * same movie collapse into a single aggregate update.
+ */
+public record RatingDelta(
+        long sum,
+        long count,
+        long oneStar,
+        long twoStar,
+        long threeStar,
+        long fourStar,
+        long fiveStar
+) {
+
+    public static final RatingDelta NONE = new RatingDelta(0, 0, 0, 0, 0, 0, 0);
+
+    public static RatingDelta added(int rating) {
+        return star(rating, 1);
+    }
+
+    public static RatingDelta removed(int rating) {
+        return star(rating, -1);
+    }
+
+    public static RatingDelta changed(int from, int to) {
+        return removed(from).plus(added(to));
+    }
+
+    public RatingDelta plus(RatingDelta other) {
+        return new RatingDelta(
+                sum + other.sum,
+                count + other.count,
+                oneStar + other.oneStar,
+                twoStar + other.twoStar,
+                threeStar + other.threeStar,
+                fourStar + other.fourStar,
+                fiveStar + other.fiveStar
+        );
+    }
+
+    public boolean isEmpty() {
+        return equals(NONE);
+    }
+
+    private static RatingDelta star(int rating, int sign) {
+        return switch (rating) {
+            case 1 -> new RatingDelta(sign, sign, sign, 0, 0, 0, 0);
+            case 2 -> new RatingDelta(2L * sign, sign, 0, sign, 0, 0, 0);
+            case 3 -> new RatingDelta(3L * sign, sign, 0, 0, sign, 0, 0);
+            case 4 -> new RatingDelta(4L * sign, sign, 0, 0, 0, sign, 0);
+            case 5 -> new RatingDelta(5L * sign, sign, 0, 0, 0, 0, sign);
+            default -> throw new IllegalArgumentException("Rating must be between 1 and 5");
+        };
+    }
+}
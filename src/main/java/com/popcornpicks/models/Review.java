@@ -11,7 +11,12 @@ import java.time.LocalDateTime;
         uniqueConstraints = @UniqueConstraint(
                 columnNames = {"user_id", "movie_id"},
                 name = "uk_user_movie_review"
-        )
+        ),
+        indexes = {
+                // keyset pagination seeks on (created_at, id) within one movie or one user
+                @Index(name = "idx_reviews_movie_created", columnList = "movie_id, created_at, id"),
+                @Index(name = "idx_reviews_user_created", columnList = "user_id, created_at, id")
+        }
 )
 public class Review {
 
@@ -26,11 +31,11 @@ public class Review {
     private String comment;
 
     @ManyToOne(optional = false)
-    @JoinColumn(name = "user_id", nullable = false)
+    @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(name = "fk_reviews_user"))
     private User user;
 
     @ManyToOne(optional = false)
-    @JoinColumn(name = "movie_id", nullable = false)
+    @JoinColumn(name = "movie_id", nullable = false, foreignKey = @ForeignKey(name = "fk_reviews_movie"))
     private Movie movie;
 
     @Column(name = "created_at", updatable = false)
@@ -11,7 +11,9 @@ import java.time.LocalDateTime;
         uniqueConstraints = @UniqueConstraint(
                 columnNames = {"user_id", "movie_id"},
                 name = "uk_user_movie_watchlist"
-        )
+        ),
+        // filters one user's rows and serves sort=addedAt without sorting them
+        indexes = @Index(name = "idx_watchlist_user_added", columnList = "user_id, added_at")
 )
 public class WatchlistItem {
 
@@ -20,11 +22,11 @@ public class WatchlistItem {
     private Long id;
 
     @ManyToOne(optional = false)
-    @JoinColumn(name = "user_id", nullable = false)
+    @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(name = "fk_watchlist_user"))
     private User user;
 
     @ManyToOne(optional = false)
-    @JoinColumn(name = "movie_id", nullable = false)
+    @JoinColumn(name = "movie_id", nullable = false, foreignKey = @ForeignKey(name = "fk_watchlist_movie"))
     private Movie movie;
 
     @Column(name = "added_at", updatable = false)
@@ -0,0 +1,20 @@
+package com.popcornpicks.repository;
+
+import com.popcornpicks.dto.MovieFilter;
+import com.popcornpicks.models.Movie;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Map;
+
+/**
+ * Grouped counts over the movies matching a specification, mixed into MovieRepository.
+ */
+public interface MovieFacetRepository {
+
+    /**
+     * One grouped query for the facet. Keys are the genre, the first year of the decade
+     * ("1990") or the whole-star floor of the average rating ("4"); genres are ordered
+     * by count, decades and stars by key.
+     */
+    Map<String, Long> countFacet(Specification<Movie> spec, MovieFilter.Facet facet);
+}
@@ -0,0 +1,53 @@
+package com.popcornpicks.repository;
+
+import com.popcornpicks.dto.MovieFilter;
+import com.popcornpicks.models.Movie;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class MovieFacetRepositoryImpl implements MovieFacetRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Map<String, Long> countFacet(Specification<Movie> spec, MovieFilter.Facet facet) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Movie> root = query.from(Movie.class);
+
+        Expression<?> key = switch (facet) {
+            // a movie is counted once under each of its genres
+            case GENRE -> root.join("genres");
+            case YEAR -> cb.prod(cb.quot(root.<Integer>get("year"), 10).as(Integer.class), 10);
+            case RATING -> cb.function("floor", Double.class, root.get("averageRating")).as(Integer.class);
+        };
+        Expression<Long> count = cb.count(root);
+
+        Predicate where = spec.toPredicate(root, query, cb);
+        query.multiselect(key, count).groupBy(key);
+        if (where != null) {
+            query.where(where);
+        }
+        query.orderBy(facet == MovieFilter.Facet.GENRE
+                ? List.of(cb.desc(count), cb.asc(key))
+                : List.of(cb.asc(key)));
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            counts.put(String.valueOf(row.get(0)), row.get(1, Long.class));
+        }
+        return counts;
+    }
+}
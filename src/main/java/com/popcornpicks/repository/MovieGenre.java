@@ -0,0 +1,6 @@
+package com.popcornpicks.repository;
+
+public interface MovieGenre {
+    Long getMovieId();
+    String getGenre();
+}
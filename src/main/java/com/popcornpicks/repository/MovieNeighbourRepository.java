@@ -0,0 +1,24 @@
+package com.popcornpicks.repository;
+
+import com.popcornpicks.dto.SimilarMovieResponse;
+import com.popcornpicks.models.MovieNeighbour;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MovieNeighbourRepository extends JpaRepository<MovieNeighbour, MovieNeighbour.Key> {
+
+    // primary-key range scan on (movie_id, neighbour_rank) plus a primary-key lookup per neighbour
+    @Query("""
+            select new com.popcornpicks.dto.SimilarMovieResponse(m.id, m.title, m.year, n.similarity)
+            from MovieNeighbour n join Movie m on m.id = n.neighbourId
+            where n.movieId = :movieId
+            order by n.rank
+            """)
+    List<SimilarMovieResponse> findSimilar(@Param("movieId") Long movieId, Limit limit);
+}
@@ -1,19 +1,28 @@
 package com.popcornpicks.repository;
 
 import com.popcornpicks.models.Movie;
+import com.popcornpicks.models.RatingDelta;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface MovieRepository extends JpaRepository<Movie, Long> {
+public interface MovieRepository extends JpaRepository<Movie, Long>, JpaSpecificationExecutor<Movie>,
+        MovieFacetRepository, MovieSliceRepository {
 
 
-    Page<Movie> findByTitleContainingIgnoreCase(String title, Pageable pageable);
-    Page<Movie> findByGenresContaining(String genre, Pageable pageable);
     Page<Movie> findByYear(int year, Pageable pageable);
 
 
@@ -22,4 +31,118 @@ public interface MovieRepository extends JpaRepository<Movie, Long> {
     Page<Movie> findByCreatedAtAfter(LocalDateTime dateTime, Pageable pageable);
     Page<Movie> findAllByOrderByCreatedAtDesc(Pageable pageable);
 
+
+    @Query("select m.id as id, m.title as title, m.year as year, m.ratingSum as ratingSum, m.ratingCount as ratingCount from Movie m")
+    List<MovieSummary> findAllSummaries();
+
+
+    @Query("select m.id as id, m.title as title, m.year as year, m.ratingSum as ratingSum, m.ratingCount as ratingCount from Movie m where m.id in :ids")
+    List<MovieSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+
+    @Query("select m.version as version, m.updatedAt as updatedAt from Movie m where m.id = :id")
+    Optional<MovieVersion> findVersionById(@Param("id") Long id);
+
+
+    /**
+     * Loads a movie for an edit and locks its row until the transaction ends, so a rating delta
+     * cannot commit between the read and the write and the edit's version bump starts from the
+     * current version.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select m from Movie m where m.id = :id")
+    Optional<Movie> findForUpdateById(@Param("id") Long id);
+
+
+    @Query("select m.id as movieId, g as genre from Movie m join m.genres g")
+    List<MovieGenre> findAllGenres();
+
+
+    @Query("select m.id as movieId, g as genre from Movie m join m.genres g where m.id in :ids")
+    List<MovieGenre> findGenresByIdIn(@Param("ids") Collection<Long> ids);
+
+
+    /**
+     * Applies a rating delta to the running aggregates of one movie in a single atomic UPDATE,
+     * so the cost of a review write does not depend on how many reviews the movie already has.
+     */
+    default int applyRatingDelta(Long movieId, RatingDelta delta) {
+        return updateRatingAggregates(
+                movieId, delta.sum(), delta.count(),
+                delta.oneStar(), delta.twoStar(), delta.threeStar(), delta.fourStar(), delta.fiveStar()
+        );
+    }
+
+
+    @Modifying
+    @Query("""
+            update Movie m
+            set m.ratingSum = m.ratingSum + :sumDelta,
+                m.ratingCount = m.ratingCount + :countDelta,
+                m.averageRating = case
+                    when m.ratingCount + :countDelta > 0
+                        then cast(m.ratingSum + :sumDelta as double) / (m.ratingCount + :countDelta)
+                    else 0.0
+                end,
+                m.oneStarCount = m.oneStarCount + :oneStar,
+                m.twoStarCount = m.twoStarCount + :twoStar,
+                m.threeStarCount = m.threeStarCount + :threeStar,
+                m.fourStarCount = m.fourStarCount + :fourStar,
+                m.fiveStarCount = m.fiveStarCount + :fiveStar,
+                m.version = m.version + 1,
+                m.updatedAt = current_timestamp
+            where m.id = :movieId
+            """)
+    int updateRatingAggregates(@Param("movieId") Long movieId,
+                               @Param("sumDelta") long sumDelta,
+                               @Param("countDelta") long countDelta,
+                               @Param("oneStar") long oneStar,
+                               @Param("twoStar") long twoStar,
+                               @Param("threeStar") long threeStar,
+                               @Param("fourStar") long fourStar,
+                               @Param("fiveStar") long fiveStar);
+
+
+    /**
+     * Rebuilds the rating aggregates of every movie from the reviews table.
+     * Only meant for reconciliation, it scans all reviews.
+     */
+    @Modifying
+    @Query("""
+            update Movie m
+            set m.ratingSum = (select coalesce(sum(r.rating), 0) from Review r where r.movie.id = m.id),
+                m.ratingCount = (select count(r) from Review r where r.movie.id = m.id),
+                m.averageRating = (select coalesce(avg(r.rating), 0.0) from Review r where r.movie.id = m.id),
+                m.oneStarCount = (select count(r) from Review r where r.movie.id = m.id and r.rating = 1),
+                m.twoStarCount = (select count(r) from Review r where r.movie.id = m.id and r.rating = 2),
+                m.threeStarCount = (select count(r) from Review r where r.movie.id = m.id and r.rating = 3),
+                m.fourStarCount = (select count(r) from Review r where r.movie.id = m.id and r.rating = 4),
+                m.fiveStarCount = (select count(r) from Review r where r.movie.id = m.id and r.rating = 5),
+                m.version = m.version + 1,
+                m.updatedAt = current_timestamp
+            """)
+    int recomputeAllRatingAggregates();
+
+
+    /**
+     * Rebuilds the rating aggregates of the given movies from the reviews table,
+     * used after bulk imports that bypass the per-review delta updates.
+     */
+    @Modifying
+    @Query("""
+            update Movie m
+            set m.ratingSum = (select coalesce(sum(r.rating), 0) from Review r where r.movie.id = m.id),
+                m.ratingCount = (select count(r) from Review r where r.movie.id = m.id),
+                m.averageRating = (select coalesce(avg(r.rating), 0.0) from Review r where r.movie.id = m.id),
+                m.oneStarCount = (select count(r) from Review r where r.movie.id = m.id and r.rating = 1),
+                m.twoStarCount = (select count(r) from Review r where r.movie.id = m.id and r.rating = 2),
+                m.threeStarCount = (select count(r) from Review r where r.movie.id = m.id and r.rating = 3),
+                m.fourStarCount = (select count(r) from Review r where r.movie.id = m.id and r.rating = 4),
+                m.fiveStarCount = (select count(r) from Review r where r.movie.id = m.id and r.rating = 5),
+                m.version = m.version + 1,
+                m.updatedAt = current_timestamp
+            where m.id in :movieIds
+            """)
+    int recomputeRatingAggregates(@Param("movieIds") Collection<Long> movieIds);
+
 }
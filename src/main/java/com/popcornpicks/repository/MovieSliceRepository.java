@@ -0,0 +1,18 @@
+package com.popcornpicks.repository;
+
+import com.popcornpicks.models.Movie;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Specification queries without the count, mixed into MovieRepository
+ * (JpaSpecificationExecutor only returns pages).
+ */
+public interface MovieSliceRepository {
+
+    /**
+     * Reads one row past the page to tell whether another page exists.
+     */
+    Slice<Movie> findSlice(Specification<Movie> spec, Pageable pageable);
+}
@@ -0,0 +1,47 @@
+package com.popcornpicks.repository;
+
+import com.popcornpicks.models.Movie;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+class MovieSliceRepositoryImpl implements MovieSliceRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Movie> findSlice(Specification<Movie> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Movie> query = cb.createQuery(Movie.class);
+        Root<Movie> root = query.from(Movie.class);
+
+        Predicate where = spec.toPredicate(root, query, cb);
+        if (where != null) {
+            query.where(where);
+        }
+        query.select(root).orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<Movie> typed = entityManager.createQuery(query);
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(typed.getResultList(), pageable, false);
+        }
+        List<Movie> rows = typed
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+}
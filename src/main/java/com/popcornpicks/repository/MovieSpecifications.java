@@ -0,0 +1,73 @@
+package com.popcornpicks.repository;
+
+import com.popcornpicks.dto.MovieFilter;
+import com.popcornpicks.models.Movie;
+import com.popcornpicks.utils.TitleTokenizer;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns a MovieFilter into one WHERE clause. Genre criteria are correlated EXISTS / COUNT
+ * subqueries rather than joins, so a movie is never returned twice and the page count
+ * query stays a plain count.
+ */
+public final class MovieSpecifications {
+
+    private MovieSpecifications() { }
+
+    public static Specification<Movie> matching(MovieFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            // tokens are letters and digits only, so nothing needs escaping; on Postgres
+            // idx_movies_title_lower_trgm serves these infix LIKEs
+            for (String token : TitleTokenizer.tokenize(filter.getTitle())) {
+                predicates.add(cb.like(cb.lower(root.get("title")), "%" + token + "%"));
+            }
+            if (!filter.getGenres().isEmpty()) {
+                predicates.add(filter.getGenreMatch() == MovieFilter.GenreMatch.ALL
+                        ? hasAllGenres(root, query, cb, filter.getGenres())
+                        : hasAnyGenre(root, query, cb, filter.getGenres()));
+            }
+            if (filter.getYearFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("year"), filter.getYearFrom()));
+            }
+            if (filter.getYearTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("year"), filter.getYearTo()));
+            }
+            if (filter.getMinRating() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("averageRating"), filter.getMinRating()));
+            }
+            if (filter.getCreatedAfter() != null) {
+                predicates.add(cb.greaterThan(root.get("createdAt"), filter.getCreatedAfter()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static Predicate hasAnyGenre(Root<Movie> root, CriteriaQuery<?> query, CriteriaBuilder cb,
+                                         List<String> genres) {
+        Subquery<Long> sub = query.subquery(Long.class);
+        Root<Movie> movie = sub.from(Movie.class);
+        Join<Movie, String> genre = movie.join("genres");
+        sub.select(movie.get("id")).where(cb.equal(movie, root), genre.in(genres));
+        return cb.exists(sub);
+    }
+
+    private static Predicate hasAllGenres(Root<Movie> root, CriteriaQuery<?> query, CriteriaBuilder cb,
+                                          List<String> genres) {
+        Subquery<Long> sub = query.subquery(Long.class);
+        Root<Movie> movie = sub.from(Movie.class);
+        Join<Movie, String> genre = movie.join("genres");
+        sub.select(cb.countDistinct(genre)).where(cb.equal(movie, root), genre.in(genres));
+        return cb.equal(sub, genres.stream().distinct().count());
+    }
+}
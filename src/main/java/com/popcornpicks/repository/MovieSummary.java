@@ -0,0 +1,12 @@
+package com.popcornpicks.repository;
+
+/**
+ * Scalar view of a movie, used to (re)build the in-memory indexes without loading entities.
+ */
+public interface MovieSummary {
+    Long getId();
+    String getTitle();
+    int getYear();
+    long getRatingSum();
+    long getRatingCount();
+}
@@ -0,0 +1,11 @@
+package com.popcornpicks.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Validators of one movie row, enough to answer a conditional GET without loading the entity.
+ */
+public interface MovieVersion {
+    long getVersion();
+    LocalDateTime getUpdatedAt();
+}
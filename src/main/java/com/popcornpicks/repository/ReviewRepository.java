@@ -1,11 +1,17 @@
 package com.popcornpicks.repository;
 
+import com.popcornpicks.dto.ReviewResponse;
 import com.popcornpicks.models.Review;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,11 +22,60 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     Optional<Review> findByUserIdAndMovieId(Long userId, Long movieId);
 
 
-    Page<Review> findByMovieId(Long movieId, Pageable pageable);
+    // list endpoints select straight into ReviewResponse: user and movie are never loaded
 
+    String SELECT_RESPONSE = "select new com.popcornpicks.dto.ReviewResponse("
+            + "r.id, r.user.id, r.movie.id, r.rating, r.comment, r.createdAt) from Review r ";
 
-    Page<Review> findByUserId(Long userId, Pageable pageable);
 
+    @Query(value = SELECT_RESPONSE + "where r.movie.id = :movieId",
+            countQuery = "select count(r) from Review r where r.movie.id = :movieId")
+    Page<ReviewResponse> findResponsesByMovieId(@Param("movieId") Long movieId, Pageable pageable);
 
-    List<Review> findByMovieId(Long movieId);
+
+    @Query(value = SELECT_RESPONSE + "where r.user.id = :userId",
+            countQuery = "select count(r) from Review r where r.user.id = :userId")
+    Page<ReviewResponse> findResponsesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+
+    // same pages without the count: Spring Data reads one extra row for hasNext()
+
+    @Query(SELECT_RESPONSE + "where r.movie.id = :movieId")
+    Slice<ReviewResponse> findResponseSliceByMovieId(@Param("movieId") Long movieId, Pageable pageable);
+
+
+    @Query(SELECT_RESPONSE + "where r.user.id = :userId")
+    Slice<ReviewResponse> findResponseSliceByUserId(@Param("userId") Long userId, Pageable pageable);
+
+
+    // keyset pagination, newest first: no offset scan and no count query
+
+    @Query(SELECT_RESPONSE + "where r.movie.id = :movieId order by r.createdAt desc, r.id desc")
+    List<ReviewResponse> findLatestByMovieId(@Param("movieId") Long movieId, Limit limit);
+
+
+    @Query(SELECT_RESPONSE + """
+            where r.movie.id = :movieId
+              and (r.createdAt < :createdAt or (r.createdAt = :createdAt and r.id < :id))
+            order by r.createdAt desc, r.id desc
+            """)
+    List<ReviewResponse> findByMovieIdBefore(@Param("movieId") Long movieId,
+                                             @Param("createdAt") LocalDateTime createdAt,
+                                             @Param("id") Long id,
+                                             Limit limit);
+
+
+    @Query(SELECT_RESPONSE + "where r.user.id = :userId order by r.createdAt desc, r.id desc")
+    List<ReviewResponse> findLatestByUserId(@Param("userId") Long userId, Limit limit);
+
+
+    @Query(SELECT_RESPONSE + """
+            where r.user.id = :userId
+              and (r.createdAt < :createdAt or (r.createdAt = :createdAt and r.id < :id))
+            order by r.createdAt desc, r.id desc
+            """)
+    List<ReviewResponse> findByUserIdBefore(@Param("userId") Long userId,
+                                            @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") Long id,
+                                            Limit limit);
 }
@@ -1,9 +1,13 @@
 package com.popcornpicks.repository;
 
+import com.popcornpicks.dto.WatchlistResponse;
 import com.popcornpicks.models.WatchlistItem;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -12,10 +16,25 @@ import java.util.Optional;
 public interface WatchlistRepository extends JpaRepository<WatchlistItem, Long> {
 
 
-    Optional<WatchlistItem> findByUserIdAndMovieId(Long userId, Long movieId);
+    // list endpoints select straight into WatchlistResponse: the eager user (with its roles)
+    // and movie are never loaded
 
+    String SELECT_RESPONSE = "select new com.popcornpicks.dto.WatchlistResponse("
+            + "w.id, w.movie.id, w.movie.title, w.addedAt) from WatchlistItem w ";
 
-    Page<WatchlistItem> findByUserId(Long userId, Pageable pageable);
+
+    @Query(SELECT_RESPONSE + "where w.user.id = :userId and w.movie.id = :movieId")
+    Optional<WatchlistResponse> findResponseByUserIdAndMovieId(@Param("userId") Long userId,
+                                                               @Param("movieId") Long movieId);
+
+
+    @Query(value = SELECT_RESPONSE + "where w.user.id = :userId",
+            countQuery = "select count(w) from WatchlistItem w where w.user.id = :userId")
+    Page<WatchlistResponse> findResponsesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+
+    @Query(SELECT_RESPONSE + "where w.user.id = :userId")
+    Slice<WatchlistResponse> findResponseSliceByUserId(@Param("userId") Long userId, Pageable pageable);
 
 
     void deleteByUserIdAndMovieId(Long userId, Long movieId);
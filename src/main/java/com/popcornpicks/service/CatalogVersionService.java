@@ -0,0 +1,14 @@
+package com.popcornpicks.service;
+
+public interface CatalogVersionService {
+
+    /**
+     * Validators of the whole catalog, read from the database so that every instance agrees:
+     * the tag changes whenever a movie or a rating changes, and lastModified is the epoch
+     * millis of that change (or -1 before the first one).
+     */
+    Version getVersion();
+
+
+    record Version(String tag, long lastModified) { }
+}
@@ -0,0 +1,23 @@
+package com.popcornpicks.service;
+
+import com.popcornpicks.dto.MovieFilter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface GenreIndex {
+
+    /**
+     * Ids of the movies tagged with any / all of the given genres, in ascending id order.
+     * Genre names are matched exactly, as in the database.
+     */
+    Page<Long> find(Collection<String> genres, MovieFilter.GenreMatch match, Pageable pageable);
+
+
+    /**
+     * Number of movies per genre, most common genre first.
+     */
+    Map<String, Integer> counts();
+}
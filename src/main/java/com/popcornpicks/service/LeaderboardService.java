@@ -0,0 +1,20 @@
+package com.popcornpicks.service;
+
+import com.popcornpicks.dto.LeaderboardEntryResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface LeaderboardService {
+
+    /**
+     * One page of the top-rated ranking, overall or restricted to a genre (null = overall).
+     * Only movies with at least one review are ranked.
+     */
+    Page<LeaderboardEntryResponse> getTopMovies(String genre, Pageable pageable);
+
+
+    /**
+     * Reloads every movie from the database and recomputes the prior mean the scores are weighted towards.
+     */
+    void rebuild();
+}
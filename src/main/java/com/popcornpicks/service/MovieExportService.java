@@ -0,0 +1,15 @@
+package com.popcornpicks.service;
+
+import java.io.OutputStream;
+
+public interface MovieExportService {
+
+    /**
+     * Writes the whole catalog as newline-delimited JSON, one movie (with its genres) per line,
+     * in id order. Rows are read through a forward-only cursor and written as they arrive,
+     * so memory use does not depend on the catalog size.
+     * @param out the response body; flushed every few rows and at the end, not closed
+     * @return the number of movies written
+     */
+    long exportMovies(OutputStream out);
+}
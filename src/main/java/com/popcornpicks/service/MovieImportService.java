@@ -0,0 +1,17 @@
+package com.popcornpicks.service;
+
+import com.popcornpicks.dto.ImportResponse;
+
+import java.io.InputStream;
+
+public interface MovieImportService {
+
+    /**
+     * Imports movies from a newline-delimited JSON stream, one movie request (title, year,
+     * posterPath, genres) per line. Valid rows are inserted in JDBC batches, one transaction
+     * per batch; invalid rows are skipped and reported.
+     * @param ndjson the request body
+     * @return counters plus the (capped) list of rows that were not imported
+     */
+    ImportResponse importMovies(InputStream ndjson);
+}
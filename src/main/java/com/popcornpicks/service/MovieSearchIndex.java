@@ -0,0 +1,30 @@
+package com.popcornpicks.service;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+public interface MovieSearchIndex {
+
+    /**
+     * Finds the movies whose title contains every token of the query, either as a whole word
+     * or as the prefix of one, ordered by relevance (best match first).
+     * Which implementation runs is chosen by {@code popcornpicks.search.engine}.
+     * @param query free text as typed by the user
+     * @param pageable page number and size; any sort is ignored in favour of relevance
+     * @return a page of movie ids
+     */
+    Page<Long> search(String query, Pageable pageable);
+
+    /**
+     * Same results as {@link #search}, without the total number of matches.
+     */
+    Slice<Long> searchSlice(String query, Pageable pageable);
+
+    /**
+     * Typo-tolerant variant of {@link #search}: a query token also matches title tokens within
+     * one edit (tokens of 4-5 characters) or two (longer tokens). Candidates come from a trigram
+     * index and are verified by edit distance; closer matches rank first.
+     */
+    Page<Long> searchFuzzy(String query, Pageable pageable);
+}
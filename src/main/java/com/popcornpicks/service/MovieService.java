@@ -1,10 +1,15 @@
 package com.popcornpicks.service;
 
+import com.popcornpicks.dto.MovieFilter;
 import com.popcornpicks.models.Movie;
+import com.popcornpicks.repository.MovieVersion;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
 
 public interface MovieService {
 
@@ -14,15 +19,54 @@ public interface MovieService {
     Page<Movie> searchByTitle(String title, Pageable pageable);
 
 
+    /**
+     * Like {@link #searchByTitle}, tolerating typos in the query ("godfater").
+     */
+    Page<Movie> searchByTitleFuzzy(String title, Pageable pageable);
+
+
+    /**
+     * Movies matching every criterion set on the filter, in one query.
+     */
+    Page<Movie> search(MovieFilter filter, Pageable pageable);
+
+
+    /**
+     * Same as {@link #search} and {@link #searchByTitle} without totals, so no count query runs.
+     */
+    Slice<Movie> searchSlice(MovieFilter filter, Pageable pageable);
+
+
+    Slice<Movie> searchByTitleSlice(String title, Pageable pageable);
+
+
     Page<Movie> filterByGenre(String genre, Pageable pageable);
 
 
+    /**
+     * Number of movies per genre, most common genre first.
+     */
+    Map<String, Integer> getGenreCounts();
+
+
+    /**
+     * Counts per facet value over every movie matching the filter, one grouped query per facet.
+     */
+    Map<MovieFilter.Facet, Map<String, Long>> getFacets(MovieFilter filter, Set<MovieFilter.Facet> facets);
+
+
     Page<Movie> filterByYear(int year, Pageable pageable);
 
 
     Movie getMovieById(Long id);
 
 
+    /**
+     * Version and last update of a movie, read without loading the entity.
+     */
+    MovieVersion getMovieVersion(Long id);
+
+
     Movie createMovie(Movie movie);
 
 
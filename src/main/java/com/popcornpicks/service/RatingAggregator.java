@@ -0,0 +1,19 @@
+package com.popcornpicks.service;
+
+import com.popcornpicks.models.RatingDelta;
+
+public interface RatingAggregator {
+
+    /**
+     * Records a change to the rating aggregates of a movie.
+     * Depending on the configured mode it is applied right away or queued and applied later.
+     * @param movieId the movie whose aggregates change
+     * @param delta the change caused by one review write
+     */
+    void record(Long movieId, RatingDelta delta);
+
+    /**
+     * Applies every delta that is still pending. A no-op when deltas are applied right away.
+     */
+    void flush();
+}
@@ -0,0 +1,21 @@
+package com.popcornpicks.service;
+
+import com.popcornpicks.dto.RecommendationResponse;
+
+import java.util.List;
+
+public interface RecommendationService {
+
+    /**
+     * Movies the user has not reviewed or watchlisted yet, best first, scored from the movies
+     * they have by the precomputed similar-movies lists. Served from per-user lists kept in
+     * memory; a user's list is refreshed as soon as they review or watchlist a movie.
+     */
+    List<RecommendationResponse> getRecommendations(Long userId, int limit);
+
+    /**
+     * Reloads every user's reviews and watchlist and the neighbour lists, and recomputes all
+     * recommendation lists. Runs at startup and after each similar-movies run.
+     */
+    void rebuild();
+}
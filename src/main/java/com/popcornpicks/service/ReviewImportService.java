@@ -0,0 +1,16 @@
+package com.popcornpicks.service;
+
+import com.popcornpicks.dto.ImportResponse;
+
+import java.io.InputStream;
+
+public interface ReviewImportService {
+
+    /**
+     * Imports reviews from a newline-delimited JSON stream, one review object per line.
+     * The stream is read line by line, so the body is never held in memory as a whole.
+     * @param ndjson the request body
+     * @return counters plus the (capped) list of rows that were not imported
+     */
+    ImportResponse importReviews(InputStream ndjson);
+}
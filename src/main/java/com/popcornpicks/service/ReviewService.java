@@ -1,8 +1,11 @@
 package com.popcornpicks.service;
 
+import com.popcornpicks.dto.ReviewResponse;
 import com.popcornpicks.models.Review;
+import com.popcornpicks.utils.KeysetCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.time.LocalDateTime;
 
@@ -20,8 +23,33 @@ public interface ReviewService {
     Review getReviewById(Long id);
 
 
-    Page<Review> getReviewsByMovie(Long movieId, Pageable pageable);
+    Page<ReviewResponse> getReviewsByMovie(Long movieId, Pageable pageable);
 
 
-    Page<Review> getReviewsByUser(Long userId, Pageable pageable);
+    Page<ReviewResponse> getReviewsByUser(Long userId, Pageable pageable);
+
+    /**
+     * Same page as {@link #getReviewsByMovie} without totals, so no count query runs.
+     */
+    Slice<ReviewResponse> getReviewSliceByMovie(Long movieId, Pageable pageable);
+
+
+    Slice<ReviewResponse> getReviewSliceByUser(Long userId, Pageable pageable);
+
+    /**
+     * Keyset pagination over a movie's reviews, newest first.
+     * @param after the last review of the previous page, or null for the first page
+     * @param limit maximum number of reviews to return
+     * @return the page; {@code hasNext()} tells whether more reviews follow
+     */
+    Slice<ReviewResponse> getReviewsByMovieAfter(Long movieId, KeysetCursor after, int limit);
+
+
+    Slice<ReviewResponse> getReviewsByUserAfter(Long userId, KeysetCursor after, int limit);
+
+    /**
+     * Rebuilds the running rating aggregates of every movie from the reviews table.
+     * @return the number of movies that were rewritten
+     */
+    int reconcileRatingAggregates();
 }
@@ -0,0 +1,22 @@
+package com.popcornpicks.service;
+
+import com.popcornpicks.dto.SimilarMovieResponse;
+import com.popcornpicks.dto.SimilarityJobResponse;
+
+import java.util.List;
+
+public interface SimilarMoviesService {
+
+    /**
+     * The movies whose ratings correlate most with this one's, most similar first, as computed
+     * by the last run of {@link #recompute}. Empty for movies with too few ratings.
+     */
+    List<SimilarMovieResponse> getSimilar(Long movieId, int limit);
+
+    /**
+     * Rebuilds the neighbour lists from all reviews. A full run rewrites every list; otherwise
+     * only the movies whose ratings changed since the last run and the movies sharing a rater
+     * with them are recomputed.
+     */
+    SimilarityJobResponse recompute(boolean full);
+}
@@ -0,0 +1,16 @@
+package com.popcornpicks.service;
+
+import com.popcornpicks.dto.SuggestionResponse;
+
+import java.util.List;
+
+public interface SuggestionService {
+
+    /**
+     * Titles with a word starting with the typed text, most reviewed first.
+     * Matching ignores case, accents and punctuation.
+     * @param query the text typed so far
+     * @param limit how many suggestions to return, capped by the configured top-k
+     */
+    List<SuggestionResponse> suggest(String query, int limit);
+}
@@ -0,0 +1,31 @@
+package com.popcornpicks.service;
+
+import com.popcornpicks.dto.TrendingEntryResponse;
+
+import java.util.List;
+
+public interface TrendingService {
+
+    enum Window {
+        DAY(24), WEEK(168);
+
+        private final int hours;
+
+        Window(int hours) { this.hours = hours; }
+
+        public int hours() { return hours; }
+    }
+
+    /**
+     * Movies with the most new reviews plus watchlist additions over the window, busiest first.
+     * Served from in-memory hourly counters; the cost depends on the number of recently active
+     * movies, not on the size of the reviews or watchlist tables.
+     */
+    List<TrendingEntryResponse> getTrending(Window window, int limit);
+
+    /**
+     * Writes the hourly counters changed since the last checkpoint to the database and drops
+     * checkpoints older than a week, so a restart only loses activity since the last call.
+     */
+    void checkpoint();
+}
@@ -1,17 +1,40 @@
 package com.popcornpicks.service;
 
-import com.popcornpicks.models.WatchlistItem;
+import com.popcornpicks.dto.WatchlistBulkResponse;
+import com.popcornpicks.dto.WatchlistResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
 
 public interface WatchlistService {
 
 
-    WatchlistItem addToWatchlist(Long userId, Long movieId);
+    /**
+     * Adds the movie unless it is already on the watchlist, and returns the new or existing
+     * item either way; concurrent adds of the same movie all succeed, and exactly one of them
+     * reports the item as inserted.
+     */
+    AddResult addToWatchlist(Long userId, Long movieId);
 
 
     void removeFromWatchlist(Long userId, Long movieId);
 
 
-    Page<WatchlistItem> getWatchlist(Long userId, Pageable pageable);
+    /**
+     * Adds and removes many movies in one transaction, with a fixed number of statements
+     * whatever the number of ids, and reports the outcome per distinct movie id.
+     */
+    WatchlistBulkResponse bulkUpdate(Long userId, List<Long> add, List<Long> remove);
+
+
+    Page<WatchlistResponse> getWatchlist(Long userId, Pageable pageable);
+
+
+    Slice<WatchlistResponse> getWatchlistSlice(Long userId, Pageable pageable);
+
+
+    /** The watchlist item, and whether this call inserted it or found it already there. */
+    record AddResult(WatchlistResponse item, boolean inserted) { }
 }
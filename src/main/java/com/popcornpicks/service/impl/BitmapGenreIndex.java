@@ -0,0 +1,136 @@
+package com.popcornpicks.service.impl;
+
+import com.popcornpicks.dto.MovieFilter;
+import com.popcornpicks.events.MovieChangedEvent;
+import com.popcornpicks.repository.MovieGenre;
+import com.popcornpicks.repository.MovieRepository;
+import com.popcornpicks.service.GenreIndex;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One bitmap per genre with a bit set for every movie id carrying it, so multi-genre
+ * AND / OR filters are word-wise bit operations and counts are a popcount. Movie ids
+ * come from a pooled sequence and are dense apart from the unused tail of a block at
+ * restarts, which keeps a plain BitSet at about one bit per movie without a compressed
+ * bitmap library.
+ * <p>
+ * Kept current by MovieChangedEvent and rebuilt from the database on startup.
+ */
+@Service
+public class BitmapGenreIndex implements GenreIndex {
+
+    private final MovieRepository movieRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, BitSet> bitmaps = new HashMap<>();   // guarded by lock
+
+    public BitmapGenreIndex(MovieRepository movieRepository) {
+        this.movieRepository = movieRepository;
+    }
+
+    @Override
+    public Page<Long> find(Collection<String> genres, MovieFilter.GenreMatch match, Pageable pageable) {
+        BitSet result = null;
+        lock.readLock().lock();
+        try {
+            for (String genre : genres) {
+                BitSet bitmap = bitmaps.getOrDefault(genre, new BitSet());
+                if (result == null) {
+                    result = (BitSet) bitmap.clone();
+                } else if (match == MovieFilter.GenreMatch.ALL) {
+                    result.and(bitmap);
+                } else {
+                    result.or(bitmap);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (result == null) {
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
+
+        long skip = pageable.isPaged() ? pageable.getOffset() : 0;
+        int size = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+        List<Long> ids = new ArrayList<>(Math.min(size, result.cardinality()));
+        for (int id = result.nextSetBit(0); id >= 0 && ids.size() < size; id = result.nextSetBit(id + 1)) {
+            if (skip > 0) {
+                skip--;
+            } else {
+                ids.add((long) id);
+            }
+        }
+        return new PageImpl<>(ids, pageable, result.cardinality());
+    }
+
+    @Override
+    public Map<String, Integer> counts() {
+        Map<String, Integer> counts = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            bitmaps.forEach((genre, bitmap) -> counts.put(genre, bitmap.cardinality()));
+        } finally {
+            lock.readLock().unlock();
+        }
+        Map<String, Integer> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Map<String, BitSet> rebuilt = new HashMap<>();
+        for (MovieGenre row : movieRepository.findAllGenres()) {
+            rebuilt.computeIfAbsent(row.getGenre(), genre -> new BitSet()).set(bit(row.getMovieId()));
+        }
+        lock.writeLock().lock();
+        try {
+            bitmaps.clear();
+            bitmaps.putAll(rebuilt);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        int bit = bit(event.movieId());
+        lock.writeLock().lock();
+        try {
+            for (BitSet bitmap : bitmaps.values()) {
+                bitmap.clear(bit);
+            }
+            if (event.type() != MovieChangedEvent.Type.DELETED) {
+                for (String genre : event.genres()) {
+                    bitmaps.computeIfAbsent(genre, key -> new BitSet()).set(bit);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static int bit(Long movieId) {
+        return Math.toIntExact(movieId);
+    }
+}
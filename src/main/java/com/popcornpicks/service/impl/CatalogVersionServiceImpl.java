@@ -0,0 +1,183 @@
+package com.popcornpicks.service.impl;
+
+import com.popcornpicks.events.MovieChangedEvent;
+import com.popcornpicks.events.RatingChangedEvent;
+import com.popcornpicks.events.RatingsRecomputedEvent;
+import com.popcornpicks.service.CatalogVersionService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the catalog version in the catalog_version row, so every instance serves the same tag.
+ * The row is bumped after the transaction that changes the catalog has committed, by a single
+ * background thread that covers every change committed since its previous bump with one UPDATE.
+ * Writers therefore never hold, or wait for, the lock on that row.
+ * <p>
+ * A response can be newer than its tag but never older, so a client revalidating with the
+ * previous tag at worst keeps data that is current. A conditional request waits for the bumps
+ * of changes this instance has already committed, so a client that has just written sees the
+ * change; other instances see it once the bump lands.
+ */
+@Service
+public class CatalogVersionServiceImpl implements CatalogVersionService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogVersionServiceImpl.class);
+
+    private static final int ROW_ID = 1;
+    private static final long RETRY_DELAY_MS = 1000;
+    private static final long MAX_WAIT_MS = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ScheduledExecutorService bumper = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "catalog-version");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // changes committed so far, and whether a bump covering the latest of them is queued
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    // changes the row already reflects; written under this lock, waited on by getVersion()
+    private volatile long applied;
+
+    public CatalogVersionServiceImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Version getVersion() {
+        awaitBump(requested.get());
+        List<Version> rows = jdbcTemplate.query("select version, updated_at from catalog_version where id = ?",
+                (rs, rowNum) -> new Version(Long.toString(rs.getLong("version"), 36),
+                        rs.getTimestamp("updated_at").getTime()),
+                ROW_ID);
+        return rows.isEmpty() ? new Version("0", -1) : rows.get(0);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createRowOnStartup() {
+        createRow();
+    }
+
+    @EventListener
+    public void onMovieChanged(MovieChangedEvent event) {
+        changed();
+    }
+
+    @EventListener
+    public void onRatingChanged(RatingChangedEvent event) {
+        changed();
+    }
+
+    @EventListener
+    public void onRatingsRecomputed(RatingsRecomputedEvent event) {
+        changed();
+    }
+
+    @PreDestroy
+    public void stopBumper() throws InterruptedException {
+        bumper.shutdown();
+        bumper.awaitTermination(MAX_WAIT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private void changed() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            requestBump();
+            return;
+        }
+        // a flush or an import publishes one event per movie; the row is bumped once
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                requestBump();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResource(CatalogVersionServiceImpl.this);
+            }
+        });
+    }
+
+    private void requestBump() {
+        requested.incrementAndGet();
+        schedule(0);
+    }
+
+    private void schedule(long delayMs) {
+        if (scheduled.compareAndSet(false, true)) {
+            bumper.schedule(this::bumpPending, delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // runs on the bumper thread; changes committed while it runs queue the next bump
+    private void bumpPending() {
+        scheduled.set(false);
+        long upTo = requested.get();
+        try {
+            bump();
+        } catch (RuntimeException ex) {
+            log.warn("Catalog version bump failed, retrying in {} ms", RETRY_DELAY_MS, ex);
+            schedule(RETRY_DELAY_MS);
+            return;
+        }
+        synchronized (this) {
+            applied = Math.max(applied, upTo);
+            notifyAll();
+        }
+    }
+
+    private void awaitBump(long change) {
+        if (applied >= change) {
+            return;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MAX_WAIT_MS);
+        synchronized (this) {
+            try {
+                long left;
+                while (applied < change && (left = deadline - System.nanoTime()) > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(this, left);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void bump() {
+        int updated = jdbcTemplate.update(
+                "update catalog_version set version = version + 1, updated_at = current_timestamp where id = ?",
+                ROW_ID);
+        if (updated == 0) {
+            createRow();
+            bump();
+        }
+    }
+
+    // starts from the clock, so tags handed out before the table was last recreated never come back
+    private void createRow() {
+        jdbcTemplate.update("""
+                insert into catalog_version (id, version, updated_at)
+                values (?, ?, current_timestamp)
+                on conflict do nothing
+                """, ROW_ID, System.currentTimeMillis());
+    }
+}
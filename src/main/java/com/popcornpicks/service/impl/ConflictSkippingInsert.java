@@ -0,0 +1,73 @@
+package com.popcornpicks.service.impl;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Multi-row {@code insert ... on conflict do nothing} that reads back the rows it actually
+ * inserted, so callers never depend on JDBC batch update counts: with reWriteBatchedInserts,
+ * pgjdbc reports SUCCESS_NO_INFO for every row of an insert batch, skipped or not. Postgres
+ * hands the rows back with {@code returning}; H2, which has no {@code returning}, selects them
+ * from a {@code final table}. Rows are sent in statements of at most {@link #MAX_PARAMETERS}
+ * bind parameters.
+ */
+final class ConflictSkippingInsert {
+
+    // Postgres allows 32767 bind parameters per statement
+    static final int MAX_PARAMETERS = 30_000;
+
+    private final String table;
+    private final List<String> columns;
+    private final String returned;
+    private final boolean returningClause;
+
+    ConflictSkippingInsert(DataSource dataSource, String table, List<String> columns, String returned) {
+        this.table = table;
+        this.columns = List.copyOf(columns);
+        this.returned = returned;
+        this.returningClause = !"H2".equals(databaseProductName(dataSource));
+    }
+
+    /**
+     * Inserts the rows, each holding one value per column, and maps the returned columns of the
+     * rows that were inserted; rows skipped on a conflict produce nothing.
+     */
+    <T> List<T> insert(JdbcTemplate jdbcTemplate, List<Object[]> rows, RowMapper<T> mapper) {
+        List<T> inserted = new ArrayList<>();
+        int rowsPerStatement = Math.max(1, MAX_PARAMETERS / columns.size());
+        for (int from = 0; from < rows.size(); from += rowsPerStatement) {
+            List<Object[]> chunk = rows.subList(from, Math.min(from + rowsPerStatement, rows.size()));
+            Object[] args = chunk.stream().flatMap(Arrays::stream).toArray();
+            inserted.addAll(jdbcTemplate.query(sql(chunk.size()), mapper, args));
+        }
+        return inserted;
+    }
+
+    private String sql(int rowCount) {
+        String placeholders = columns.stream().map(column -> "?").collect(Collectors.joining(", ", "(", ")"));
+        String insert = "insert into " + table + " (" + String.join(", ", columns) + ") values "
+                + String.join(", ", Collections.nCopies(rowCount, placeholders))
+                + " on conflict do nothing";
+        return returningClause
+                ? insert + " returning " + returned
+                : "select " + returned + " from final table (" + insert + ")";
+    }
+
+    private static String databaseProductName(DataSource dataSource) {
+        try {
+            return JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        } catch (MetaDataAccessException ex) {
+            throw new IllegalStateException("Cannot determine the database product", ex);
+        }
+    }
+}
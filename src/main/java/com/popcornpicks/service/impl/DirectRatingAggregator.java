@@ -0,0 +1,40 @@
+package com.popcornpicks.service.impl;
+
+import com.popcornpicks.events.RatingChangedEvent;
+import com.popcornpicks.exceptions.ResourceNotFoundException;
+import com.popcornpicks.models.RatingDelta;
+import com.popcornpicks.repository.MovieRepository;
+import com.popcornpicks.service.RatingAggregator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+/**
+ * Applies every rating delta inside the transaction of the review write that caused it.
+ */
+@Service
+@ConditionalOnProperty(name = "popcornpicks.ratings.aggregation.mode", havingValue = "direct", matchIfMissing = true)
+public class DirectRatingAggregator implements RatingAggregator {
+
+    private final MovieRepository movieRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public DirectRatingAggregator(MovieRepository movieRepository,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.movieRepository = movieRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void record(Long movieId, RatingDelta delta) {
+        int updated = movieRepository.applyRatingDelta(movieId, delta);
+        if (updated == 0) {
+            throw new ResourceNotFoundException("Movie not found with id " + movieId);
+        }
+        eventPublisher.publishEvent(new RatingChangedEvent(movieId, delta));
+    }
+
+    @Override
+    public void flush() {
+    }
+}
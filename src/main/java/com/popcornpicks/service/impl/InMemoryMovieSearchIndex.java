@@ -0,0 +1,202 @@
+package com.popcornpicks.service.impl;
+
+import com.popcornpicks.events.MovieChangedEvent;
+import com.popcornpicks.repository.MovieRepository;
+import com.popcornpicks.repository.MovieSummary;
+import com.popcornpicks.service.MovieSearchIndex;
+import com.popcornpicks.utils.FuzzyTitleMatcher;
+import com.popcornpicks.utils.TitleTokenizer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+
+/**
+ * Inverted index over movie titles held in memory: every title token maps to the ids of the
+ * movies containing it. The token map is sorted, so all tokens starting with a query token are
+ * one contiguous sub-map. A whole-word hit scores 2 and a prefix hit 1; ties go to the shorter
+ * title. Kept current by MovieChangedEvent and rebuilt from the database on startup.
+ * <p>
+ * For fuzzy search a second map goes from each trigram to the distinct title tokens containing
+ * it; a misspelled query token collects the tokens sharing enough of its trigrams and only
+ * those are checked with the bounded edit distance of {@link FuzzyTitleMatcher}.
+ * <p>
+ * Works on any database, which is what the H2 test profile runs with.
+ */
+@Service
+@ConditionalOnProperty(name = "popcornpicks.search.engine", havingValue = "memory", matchIfMissing = true)
+public class InMemoryMovieSearchIndex implements MovieSearchIndex {
+
+    private final MovieRepository movieRepository;
+
+    private final Map<Long, String> titles = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<String, Set<Long>> postings = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<String>> trigramTokens = new ConcurrentHashMap<>();
+
+    public InMemoryMovieSearchIndex(MovieRepository movieRepository) {
+        this.movieRepository = movieRepository;
+    }
+
+    @Override
+    public Slice<Long> searchSlice(String query, Pageable pageable) {
+        // the matches are all scored anyway, so the total costs nothing here
+        return search(query, pageable);
+    }
+
+    @Override
+    public Page<Long> search(String query, Pageable pageable) {
+        return page(score(query, this::prefixMatches), pageable);
+    }
+
+    @Override
+    public Page<Long> searchFuzzy(String query, Pageable pageable) {
+        return page(score(query, this::fuzzyMatches), pageable);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        titles.clear();
+        postings.clear();
+        trigramTokens.clear();
+        for (MovieSummary summary : movieRepository.findAllSummaries()) {
+            put(summary.getId(), summary.getTitle());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onMovieChanged(MovieChangedEvent event) {
+        remove(event.movieId());
+        if (event.type() != MovieChangedEvent.Type.DELETED) {
+            put(event.movieId(), event.title());
+        }
+    }
+
+    /**
+     * Sums, per movie, the points of the title token that best matches each query token;
+     * movies missing a match for any query token drop out.
+     */
+    private Map<Long, Integer> score(String query, Function<String, Map<String, Integer>> tokenMatches) {
+        Map<Long, Integer> scores = null;
+        for (String token : TitleTokenizer.tokenize(query)) {
+            Map<Long, Integer> matches = new HashMap<>();
+            tokenMatches.apply(token).forEach((titleToken, points) -> {
+                for (Long id : postings.getOrDefault(titleToken, Set.of())) {
+                    matches.merge(id, points, Math::max);
+                }
+            });
+            if (scores == null) {
+                scores = matches;
+            } else {
+                scores.keySet().retainAll(matches.keySet());
+                scores.replaceAll((id, score) -> score + matches.get(id));
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores;
+    }
+
+    private Map<String, Integer> prefixMatches(String token) {
+        Map<String, Integer> matches = new HashMap<>();
+        for (String titleToken : postings.subMap(token, true, token + Character.MAX_VALUE, true).keySet()) {
+            matches.put(titleToken, titleToken.equals(token) ? 2 : 1);
+        }
+        return matches;
+    }
+
+    /** Title tokens equal to, starting with or within the edit budget of the query token. */
+    private Map<String, Integer> fuzzyMatches(String token) {
+        Map<String, Integer> matches = new HashMap<>();
+        for (String titleToken : postings.subMap(token, true, token + Character.MAX_VALUE, true).keySet()) {
+            matches.put(titleToken, FuzzyTitleMatcher.points(token, titleToken));
+        }
+        int edits = FuzzyTitleMatcher.maxEdits(token);
+        if (edits == 0) {
+            return matches;
+        }
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : FuzzyTitleMatcher.trigrams(token)) {
+            for (String titleToken : trigramTokens.getOrDefault(gram, Set.of())) {
+                shared.merge(titleToken, 1, Integer::sum);
+            }
+        }
+        shared.forEach((titleToken, count) -> {
+            if (!matches.containsKey(titleToken)
+                    && count >= FuzzyTitleMatcher.minSharedTrigrams(token.length(), titleToken.length(), edits)) {
+                int points = FuzzyTitleMatcher.points(token, titleToken);
+                if (points > 0) {
+                    matches.put(titleToken, points);
+                }
+            }
+        });
+        return matches;
+    }
+
+    private Page<Long> page(Map<Long, Integer> scores, Pageable pageable) {
+        if (scores == null || scores.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
+
+        List<Long> ids = scores.keySet().stream()
+                .sorted(Comparator.<Long>comparingInt(scores::get).reversed()
+                        .thenComparingInt(id -> titles.getOrDefault(id, "").length())
+                        .thenComparing(Comparator.naturalOrder()))
+                .toList();
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(ids, pageable, ids.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + pageable.getPageSize(), ids.size());
+        return new PageImpl<>(ids.subList(from, to), pageable, ids.size());
+    }
+
+    private void put(Long movieId, String title) {
+        titles.put(movieId, title);
+        for (String token : TitleTokenizer.tokenize(title)) {
+            postings.computeIfAbsent(token, key -> {
+                for (String gram : FuzzyTitleMatcher.trigrams(key)) {
+                    trigramTokens.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(key);
+                }
+                return ConcurrentHashMap.newKeySet();
+            }).add(movieId);
+        }
+    }
+
+    private void remove(Long movieId) {
+        String title = titles.remove(movieId);
+        for (String token : TitleTokenizer.tokenize(title)) {
+            Set<Long> ids = postings.get(token);
+            if (ids != null) {
+                ids.remove(movieId);
+                if (ids.isEmpty()) {
+                    postings.remove(token);
+                    for (String gram : FuzzyTitleMatcher.trigrams(token)) {
+                        Set<String> tokens = trigramTokens.get(gram);
+                        if (tokens != null) {
+                            tokens.remove(token);
+                            if (tokens.isEmpty()) {
+                                trigramTokens.remove(gram);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
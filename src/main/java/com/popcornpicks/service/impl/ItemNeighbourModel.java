@@ -0,0 +1,149 @@
+package com.popcornpicks.service.impl;
+
+import java.util.Arrays;
+
+/**
+ * The movie_neighbours lists as a compressed graph in primitive arrays, used to score
+ * recommendations: a candidate's score is the sum, over the movies a user interacted with, of
+ * the interaction weight times the similarity of that movie to the candidate. Movies (sources
+ * and neighbours alike) are addressed by dense indexes in ascending id order. Immutable once
+ * built.
+ */
+final class ItemNeighbourModel {
+
+    private final long[] movieIds;      // movie index -> movie id, ascending
+    private final int[] start;          // neighbours of movie m: neighbours[start[m] .. start[m + 1])
+    private final int[] neighbours;
+    private final float[] similarities;
+
+    private ItemNeighbourModel(long[] movieIds, int[] start, int[] neighbours, float[] similarities) {
+        this.movieIds = movieIds;
+        this.start = start;
+        this.neighbours = neighbours;
+        this.similarities = similarities;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    int movieCount() {
+        return movieIds.length;
+    }
+
+    /**
+     * Writes the n best-scoring movies for a user into the output arrays from {@code offset} on,
+     * best first, and returns how many there are. {@code movies} must be sorted; those movies
+     * themselves are never recommended, and only candidates with a positive score qualify. The
+     * work is proportional to the user's movies times the neighbours kept per movie.
+     */
+    int recommend(long[] movies, float[] weights, int n, Scratch scratch,
+                  long[] outMovies, float[] outScores, int offset) {
+        int touchedCount = 0;
+        for (int i = 0; i < movies.length; i++) {
+            int movie = Arrays.binarySearch(movieIds, movies[i]);
+            if (movie < 0 || weights[i] == 0) {
+                continue;
+            }
+            for (int p = start[movie]; p < start[movie + 1]; p++) {
+                int candidate = neighbours[p];
+                if (!scratch.touched[candidate]) {
+                    scratch.touched[candidate] = true;
+                    scratch.touchedList[touchedCount++] = candidate;
+                }
+                scratch.scores[candidate] += weights[i] * similarities[p];
+            }
+        }
+
+        int found = 0;
+        for (int i = 0; i < touchedCount; i++) {
+            int candidate = scratch.touchedList[i];
+            float score = scratch.scores[candidate];
+            scratch.scores[candidate] = 0;
+            scratch.touched[candidate] = false;
+            long movieId = movieIds[candidate];
+            if (score <= 0 || Arrays.binarySearch(movies, movieId) >= 0) {
+                continue;
+            }
+            if (found == n && !better(score, movieId, outScores[offset + n - 1], outMovies[offset + n - 1])) {
+                continue;
+            }
+            int pos = offset + (found < n ? found++ : n - 1);
+            while (pos > offset && better(score, movieId, outScores[pos - 1], outMovies[pos - 1])) {
+                outScores[pos] = outScores[pos - 1];
+                outMovies[pos] = outMovies[pos - 1];
+                pos--;
+            }
+            outScores[pos] = score;
+            outMovies[pos] = movieId;
+        }
+        return found;
+    }
+
+    private static boolean better(float score, long movieId, float otherScore, long otherMovieId) {
+        return score > otherScore || (score == otherScore && movieId < otherMovieId);
+    }
+
+    /** Per-thread accumulators for {@link #recommend}; left cleared after every call. */
+    static final class Scratch {
+        final float[] scores;
+        final boolean[] touched;
+        final int[] touchedList;
+
+        Scratch(ItemNeighbourModel model) {
+            scores = new float[model.movieCount()];
+            touched = new boolean[model.movieCount()];
+            touchedList = new int[model.movieCount()];
+        }
+    }
+
+    /** Collects neighbour rows grouped by source movie in ascending id order, as movie_neighbours is read. */
+    static final class Builder {
+        private long[] sources = new long[1024];
+        private long[] targets = new long[1024];
+        private float[] weights = new float[1024];
+        private int size;
+
+        private Builder() { }
+
+        Builder add(long movieId, long neighbourId, float similarity) {
+            if (size > 0 && sources[size - 1] > movieId) {
+                throw new IllegalStateException("Neighbours must arrive sorted by movie id");
+            }
+            if (size == sources.length) {
+                sources = Arrays.copyOf(sources, size * 2);
+                targets = Arrays.copyOf(targets, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            sources[size] = movieId;
+            targets[size] = neighbourId;
+            weights[size++] = similarity;
+            return this;
+        }
+
+        ItemNeighbourModel build() {
+            long[] ids = new long[size * 2];
+            System.arraycopy(sources, 0, ids, 0, size);
+            System.arraycopy(targets, 0, ids, size, size);
+            Arrays.sort(ids);
+            int unique = 0;
+            for (int i = 0; i < ids.length; i++) {
+                if (unique == 0 || ids[unique - 1] != ids[i]) {
+                    ids[unique++] = ids[i];
+                }
+            }
+            long[] movieIds = Arrays.copyOf(ids, unique);
+
+            int[] start = new int[unique + 1];
+            int[] neighbours = new int[size];
+            for (int i = 0; i < size; i++) {
+                start[Arrays.binarySearch(movieIds, sources[i]) + 1]++;
+                neighbours[i] = Arrays.binarySearch(movieIds, targets[i]);
+            }
+            for (int m = 0; m < unique; m++) {
+                start[m + 1] += start[m];
+            }
+            return new ItemNeighbourModel(movieIds, start, neighbours, Arrays.copyOf(weights, size));
+        }
+    }
+}
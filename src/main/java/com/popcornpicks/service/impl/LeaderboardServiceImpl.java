@@ -0,0 +1,327 @@
+package com.popcornpicks.service.impl;
+
+import com.popcornpicks.dto.LeaderboardEntryResponse;
+import com.popcornpicks.events.MovieChangedEvent;
+import com.popcornpicks.events.RatingChangedEvent;
+import com.popcornpicks.events.RatingsRecomputedEvent;
+import com.popcornpicks.repository.MovieGenre;
+import com.popcornpicks.repository.MovieRepository;
+import com.popcornpicks.repository.MovieSummary;
+import com.popcornpicks.service.LeaderboardService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the top-rated ranking in memory, overall and per genre, so serving a page never
+ * sorts the movies table. Movies are ordered by their Bayesian average
+ * <pre>
+ *     score = (ratingSum + m * C) / (ratingCount + m)
+ * </pre>
+ * where m is {@code popcornpicks.leaderboard.min-votes} and C is the mean rating across all
+ * reviews. A movie with a handful of reviews is pulled towards C until it has earned enough
+ * votes to stand on its own average.
+ * <p>
+ * Rating and movie events move single entries in the skip lists. C itself is only
+ * recomputed by a full rebuild (on startup and every refresh interval), since changing it
+ * shifts every score at once. A rebuild reads and ranks outside the lock the listeners take;
+ * changes that arrive meanwhile are applied to the live board and recorded, then replayed onto
+ * the rebuilt one just before it replaces the live board.
+ */
+@Service
+public class LeaderboardServiceImpl implements LeaderboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaderboardServiceImpl.class);
+
+    private static final int RELOAD_CHUNK_SIZE = 1000;
+
+    // pages starting deeper than this are served from an array snapshot instead of a list walk
+    private static final int SCAN_LIMIT = 1000;
+
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingDouble(Entry::score).reversed()
+            .thenComparing(Entry::movieId);
+
+    private final MovieRepository movieRepository;
+    private final int minVotes;
+
+    // replaced wholesale by rebuild(); modified in place, under this lock, by the event listeners
+    private volatile Board board = new Board(0.0);
+
+    // guarded by this: non-null while a rebuild is reading, collects the changes to replay onto it
+    private List<Consumer<Board>> pendingChanges;
+
+    // one rebuild at a time; never held by the listeners
+    private final Object rebuildLock = new Object();
+
+    public LeaderboardServiceImpl(
+            MovieRepository movieRepository,
+            @Value("${popcornpicks.leaderboard.min-votes:10}") int minVotes
+    ) {
+        if (minVotes < 1) {
+            throw new IllegalArgumentException("popcornpicks.leaderboard.min-votes must be at least 1");
+        }
+        this.movieRepository = movieRepository;
+        this.minVotes = minVotes;
+    }
+
+    @Override
+    public Page<LeaderboardEntryResponse> getTopMovies(String genre, Pageable pageable) {
+        Board current = board;
+        Ranking ranking = genre == null ? current.overall : current.byGenre.get(genreKey(genre));
+        if (ranking == null) {
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
+
+        long offset = pageable.getOffset();
+        List<LeaderboardEntryResponse> content = new ArrayList<>(pageable.getPageSize());
+        int rank = (int) offset;
+        for (Entry entry : ranking.page(offset, pageable.getPageSize())) {
+            content.add(new LeaderboardEntryResponse(
+                    ++rank,
+                    entry.movieId(),
+                    entry.title(),
+                    entry.score(),
+                    (double) entry.ratingSum() / entry.ratingCount(),
+                    entry.ratingCount()
+            ));
+        }
+        return new PageImpl<>(content, pageable, ranking.size.get());
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            initialDelayString = "${popcornpicks.leaderboard.refresh-interval-ms:300000}",
+            fixedDelayString = "${popcornpicks.leaderboard.refresh-interval-ms:300000}"
+    )
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                pendingChanges = new ArrayList<>();
+            }
+            try {
+                Board rebuilt = read();
+                synchronized (this) {
+                    pendingChanges.forEach(change -> change.accept(rebuilt));
+                    board = rebuilt;
+                }
+            } finally {
+                synchronized (this) {
+                    pendingChanges = null;
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        apply(target -> {
+            if (event.type() == MovieChangedEvent.Type.DELETED) {
+                remove(target, event.movieId());
+                return;
+            }
+            // the entity snapshot may predate a concurrent rating update, so keep the counts we already track
+            Entry existing = target.entries.get(event.movieId());
+            long ratingSum = existing == null ? event.ratingSum() : existing.ratingSum();
+            long ratingCount = existing == null ? event.ratingCount() : existing.ratingCount();
+            put(target, event.movieId(), event.title(), event.genres(), ratingSum, ratingCount);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatingChanged(RatingChangedEvent event) {
+        apply(target -> {
+            Entry existing = target.entries.get(event.movieId());
+            if (existing == null) {
+                reload(target, List.of(event.movieId()));
+                return;
+            }
+            put(target, existing.movieId(), existing.title(), existing.genres(),
+                    existing.ratingSum() + event.delta().sum(),
+                    existing.ratingCount() + event.delta().count());
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatingsRecomputed(RatingsRecomputedEvent event) {
+        if (event.isAll()) {
+            rebuild();
+        } else {
+            apply(target -> reload(target, event.movieIds()));
+        }
+    }
+
+    private Board read() {
+        List<MovieSummary> summaries = movieRepository.findAllSummaries();
+        Map<Long, List<String>> genres = groupGenres(movieRepository.findAllGenres());
+
+        long totalSum = 0;
+        long totalCount = 0;
+        for (MovieSummary summary : summaries) {
+            totalSum += summary.getRatingSum();
+            totalCount += summary.getRatingCount();
+        }
+
+        Board rebuilt = new Board(totalCount == 0 ? 0.0 : (double) totalSum / totalCount);
+        for (MovieSummary summary : summaries) {
+            put(rebuilt, summary.getId(), summary.getTitle(),
+                    genres.getOrDefault(summary.getId(), List.of()),
+                    summary.getRatingSum(), summary.getRatingCount());
+        }
+        log.debug("Rebuilt leaderboard: {} ranked of {} movies, prior mean {}",
+                rebuilt.overall.size.get(), summaries.size(), rebuilt.priorMean);
+        return rebuilt;
+    }
+
+    /**
+     * Applies a change to the live board and, while a rebuild is reading, records it for the
+     * rebuilt board too.
+     */
+    private synchronized void apply(Consumer<Board> change) {
+        change.accept(board);
+        if (pendingChanges != null) {
+            pendingChanges.add(change);
+        }
+    }
+
+    private void reload(Board target, Collection<Long> movieIds) {
+        List<Long> ids = new ArrayList<>(movieIds);
+        for (int from = 0; from < ids.size(); from += RELOAD_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + RELOAD_CHUNK_SIZE, ids.size()));
+            Map<Long, List<String>> genres = groupGenres(movieRepository.findGenresByIdIn(chunk));
+            Set<Long> missing = new HashSet<>(chunk);
+            for (MovieSummary summary : movieRepository.findSummariesByIdIn(chunk)) {
+                missing.remove(summary.getId());
+                put(target, summary.getId(), summary.getTitle(),
+                        genres.getOrDefault(summary.getId(), List.of()),
+                        summary.getRatingSum(), summary.getRatingCount());
+            }
+            missing.forEach(id -> remove(target, id));
+        }
+    }
+
+    private void put(Board target, Long movieId, String title, List<String> genres,
+                     long ratingSum, long ratingCount) {
+        double score = (ratingSum + minVotes * target.priorMean) / (ratingCount + minVotes);
+        Entry entry = new Entry(movieId, title, List.copyOf(genres), ratingSum, ratingCount, score);
+        unrank(target, target.entries.put(movieId, entry));
+        if (ratingCount > 0) {
+            target.overall.add(entry);
+            for (String genre : entry.genres()) {
+                target.byGenre.computeIfAbsent(genreKey(genre), key -> new Ranking()).add(entry);
+            }
+        }
+    }
+
+    private void remove(Board target, Long movieId) {
+        unrank(target, target.entries.remove(movieId));
+    }
+
+    private void unrank(Board target, Entry entry) {
+        if (entry == null || entry.ratingCount() <= 0) {
+            return;
+        }
+        target.overall.remove(entry);
+        for (String genre : entry.genres()) {
+            Ranking ranking = target.byGenre.get(genreKey(genre));
+            if (ranking != null) {
+                ranking.remove(entry);
+            }
+        }
+    }
+
+    private static Map<Long, List<String>> groupGenres(List<MovieGenre> rows) {
+        Map<Long, List<String>> genres = new HashMap<>();
+        for (MovieGenre row : rows) {
+            genres.computeIfAbsent(row.getMovieId(), id -> new ArrayList<>()).add(row.getGenre());
+        }
+        return genres;
+    }
+
+    private static String genreKey(String genre) {
+        return genre.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry(Long movieId, String title, List<String> genres,
+                         long ratingSum, long ratingCount, double score) {
+    }
+
+    private static final class Ranking {
+        private final NavigableSet<Entry> entries = new ConcurrentSkipListSet<>(RANKING);
+        // ConcurrentSkipListSet.size() walks the whole list, so the total is tracked alongside it
+        private final AtomicInteger size = new AtomicInteger();
+        // the skip list has no positional access, so deep pages index into a copy that is
+        // taken at most once per change and only used while no change has happened since
+        private final AtomicLong changes = new AtomicLong();
+        private volatile Snapshot snapshot;
+
+        void add(Entry entry) {
+            if (entries.add(entry)) {
+                size.incrementAndGet();
+                changes.incrementAndGet();
+            }
+        }
+
+        void remove(Entry entry) {
+            if (entries.remove(entry)) {
+                size.decrementAndGet();
+                changes.incrementAndGet();
+            }
+        }
+
+        List<Entry> page(long offset, int limit) {
+            long seen = changes.get();
+            Snapshot current = snapshot;
+            if (current == null || current.changes() != seen) {
+                if (offset < SCAN_LIMIT) {
+                    return entries.stream().skip(offset).limit(limit).toList();
+                }
+                current = new Snapshot(seen, entries.toArray(new Entry[0]));
+                snapshot = current;
+            }
+            Entry[] ranked = current.entries();
+            int from = (int) Math.min(offset, ranked.length);
+            return Arrays.asList(ranked).subList(from, Math.min(from + limit, ranked.length));
+        }
+    }
+
+    private record Snapshot(long changes, Entry[] entries) {
+    }
+
+    private static final class Board {
+        private final double priorMean;
+        private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+        private final Ranking overall = new Ranking();
+        private final Map<String, Ranking> byGenre = new ConcurrentHashMap<>();
+
+        Board(double priorMean) {
+            this.priorMean = priorMean;
+        }
+    }
+}
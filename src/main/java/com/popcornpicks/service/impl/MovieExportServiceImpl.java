@@ -0,0 +1,123 @@
+package com.popcornpicks.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.popcornpicks.dto.MovieResponse;
+import com.popcornpicks.service.MovieExportService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+
+/**
+ * Streams the catalog in one pass over {@code movies left join movie_genres}, ordered by movie
+ * id so the genre rows of a movie arrive together and each movie is written as soon as the
+ * next one starts. The JDBC fetch size keeps the driver from buffering the whole result; on
+ * Postgres that needs the read-only transaction, since cursors are only used with autocommit off.
+ */
+@Service
+public class MovieExportServiceImpl implements MovieExportService {
+
+    // "year" is quoted because H2 treats it as a keyword
+    private static final String SELECT_CATALOG = """
+            select m.id, m.title, m."year", m.poster_path, m.average_rating, m.created_at, g.genre
+            from movies m
+            left join movie_genres g on g.movie_id = m.id
+            order by m.id
+            """;
+
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectWriter movieWriter;
+    private final int flushRows;
+
+    public MovieExportServiceImpl(
+            DataSource dataSource,
+            ObjectMapper objectMapper,
+            @Value("${popcornpicks.export.fetch-size:1000}") int fetchSize,
+            @Value("${popcornpicks.export.flush-rows:1000}") int flushRows
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.movieWriter = objectMapper.writerFor(MovieResponse.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.flushRows = flushRows;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportMovies(OutputStream out) {
+        NdjsonWriter writer = new NdjsonWriter(out);
+        jdbcTemplate.query(SELECT_CATALOG, writer::accept);
+        writer.finish();
+        return writer.written;
+    }
+
+    private final class NdjsonWriter {
+        private final OutputStream out;
+        private MovieResponse current;
+        private long written;
+
+        NdjsonWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        void accept(ResultSet rs) throws SQLException {
+            long id = rs.getLong("id");
+            if (current == null || current.getId() != id) {
+                write();
+                Timestamp createdAt = rs.getTimestamp("created_at");
+                current = new MovieResponse(
+                        id,
+                        rs.getString("title"),
+                        rs.getInt("year"),
+                        rs.getString("poster_path"),
+                        rs.getDouble("average_rating"),
+                        new ArrayList<>(),
+                        createdAt == null ? null : createdAt.toLocalDateTime()
+                );
+            }
+            String genre = rs.getString("genre");
+            if (genre != null) {
+                current.getGenres().add(genre);
+            }
+        }
+
+        void finish() {
+            write();
+            try {
+                out.flush();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        private void write() {
+            if (current == null) {
+                return;
+            }
+            try {
+                movieWriter.writeValue(out, current);
+                out.write(NEWLINE);
+                if (++written % flushRows == 0) {
+                    out.flush();
+                }
+            } catch (IOException ex) {
+                // typically the client went away; abort the query rather than read on
+                throw new UncheckedIOException(ex);
+            }
+            current = null;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.popcornpicks.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.popcornpicks.dto.ImportIssue;
+import com.popcornpicks.dto.ImportResponse;
+import com.popcornpicks.dto.MovieRequest;
+import com.popcornpicks.events.MovieChangedEvent;
+import com.popcornpicks.mapper.MovieMapper;
+import com.popcornpicks.models.Movie;
+import com.popcornpicks.service.MovieImportService;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Bulk movie ingest. Movies take their ids from a pooled sequence, so persisting a batch
+ * issues no statements until the flush, which Hibernate then sends as one JDBC batch for
+ * the movies and one for their genres. The persistence context is cleared after every
+ * batch so memory stays flat however long the stream is.
+ */
+@Service
+public class MovieImportServiceImpl implements MovieImportService {
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final MovieMapper movieMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectReader rowReader;
+    private final int batchSize;
+    private final int maxReportedIssues;
+
+    public MovieImportServiceImpl(
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            MovieMapper movieMapper,
+            Validator validator,
+            ApplicationEventPublisher eventPublisher,
+            ObjectMapper objectMapper,
+            @Value("${popcornpicks.import.batch-size:1000}") int batchSize,
+            @Value("${popcornpicks.import.max-reported-issues:1000}") int maxReportedIssues
+    ) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.movieMapper = movieMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.rowReader = objectMapper.readerFor(MovieRequest.class);
+        this.batchSize = batchSize;
+        this.maxReportedIssues = maxReportedIssues;
+    }
+
+    @Override
+    public ImportResponse importMovies(InputStream ndjson) {
+        ImportResponse response = new ImportResponse();
+        List<Movie> batch = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                response.setReceived(response.getReceived() + 1);
+
+                MovieRequest row;
+                try {
+                    row = rowReader.readValue(line);
+                } catch (JsonProcessingException ex) {
+                    reject(response, lineNumber, "Malformed JSON: " + ex.getOriginalMessage());
+                    continue;
+                }
+                String invalid = validate(row);
+                if (invalid != null) {
+                    reject(response, lineNumber, invalid);
+                    continue;
+                }
+
+                batch.add(movieMapper.toEntity(row));
+                if (batch.size() >= batchSize) {
+                    importBatch(batch, response);
+                    batch.clear();
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read movie import stream", ex);
+        }
+        if (!batch.isEmpty()) {
+            importBatch(batch, response);
+        }
+        return response;
+    }
+
+    private void importBatch(List<Movie> batch, ImportResponse response) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Movie movie : batch) {
+                entityManager.persist(movie);
+                // the id is already assigned; listeners run after the commit
+                eventPublisher.publishEvent(MovieChangedEvent.of(MovieChangedEvent.Type.CREATED, movie));
+            }
+            entityManager.flush();
+            // the request-scoped persistence context would otherwise keep every imported movie
+            entityManager.clear();
+        });
+        response.setImported(response.getImported() + batch.size());
+    }
+
+    private String validate(MovieRequest row) {
+        if (row == null) {
+            return "movie is required";
+        }
+        return validator.validate(row).stream()
+                .map(ConstraintViolation::getMessage)
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+    }
+
+    private void reject(ImportResponse response, long line, String reason) {
+        response.setRejected(response.getRejected() + 1);
+        report(response, new ImportIssue(line, ReviewImportServiceImpl.REJECTED, reason));
+    }
+
+    private void report(ImportResponse response, ImportIssue issue) {
+        if (response.getIssues().size() < maxReportedIssues) {
+            response.getIssues().add(issue);
+        } else {
+            response.setIssuesTruncated(true);
+        }
+    }
+}
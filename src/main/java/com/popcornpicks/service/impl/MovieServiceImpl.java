@@ -1,45 +1,136 @@
 package com.popcornpicks.service.impl;
 
+import com.popcornpicks.dto.MovieFilter;
+import com.popcornpicks.events.MovieChangedEvent;
 import com.popcornpicks.exceptions.ResourceNotFoundException;
 import com.popcornpicks.models.Movie;
 import com.popcornpicks.repository.MovieRepository;
+import com.popcornpicks.repository.MovieSpecifications;
+import com.popcornpicks.repository.MovieVersion;
+import com.popcornpicks.service.GenreIndex;
+import com.popcornpicks.service.MovieSearchIndex;
 import com.popcornpicks.service.MovieService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class MovieServiceImpl implements MovieService {
 
     private final MovieRepository movieRepository;
+    private final MovieSearchIndex movieSearchIndex;
+    private final GenreIndex genreIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public MovieServiceImpl(MovieRepository movieRepository) {
+    public MovieServiceImpl(MovieRepository movieRepository,
+                            MovieSearchIndex movieSearchIndex,
+                            GenreIndex genreIndex,
+                            ApplicationEventPublisher eventPublisher) {
         this.movieRepository = movieRepository;
+        this.movieSearchIndex = movieSearchIndex;
+        this.genreIndex = genreIndex;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<Movie> getAllMovies(Pageable pageable) {
         return movieRepository.findAll(pageable);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<Movie> searchByTitle(String title, Pageable pageable) {
-        return movieRepository.findByTitleContainingIgnoreCase(title, pageable);
+        return hydrate(movieSearchIndex.search(title, pageable), pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Movie> searchByTitleFuzzy(String title, Pageable pageable) {
+        return hydrate(movieSearchIndex.searchFuzzy(title, pageable), pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Movie> search(MovieFilter filter, Pageable pageable) {
+        if (useGenreIndex(filter, pageable)) {
+            return hydrate(genreIndex.find(filter.getGenres(), filter.getGenreMatch(), pageable), pageable);
+        }
+        return movieRepository.findAll(MovieSpecifications.matching(filter), pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Movie> searchSlice(MovieFilter filter, Pageable pageable) {
+        if (useGenreIndex(filter, pageable)) {
+            // the bitmap total is a popcount, nothing to save there
+            return hydrate(genreIndex.find(filter.getGenres(), filter.getGenreMatch(), pageable), pageable);
+        }
+        return movieRepository.findSlice(MovieSpecifications.matching(filter), pageable);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Slice<Movie> searchByTitleSlice(String title, Pageable pageable) {
+        Slice<Long> ids = movieSearchIndex.searchSlice(title, pageable);
+        return new SliceImpl<>(load(ids.getContent()), pageable, ids.hasNext());
+    }
+
+    private static boolean useGenreIndex(MovieFilter filter, Pageable pageable) {
+        boolean genresOnly = !filter.getGenres().isEmpty()
+                && filter.getTitle() == null
+                && filter.getYearFrom() == null && filter.getYearTo() == null
+                && filter.getMinRating() == null && filter.getCreatedAfter() == null;
+        // the bitmaps yield ids in id order, so any other sort still needs the database
+        return genresOnly && pageable.getSort().isUnsorted();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Page<Movie> filterByGenre(String genre, Pageable pageable) {
-        return movieRepository.findByGenresContaining(genre, pageable);
+        MovieFilter filter = new MovieFilter();
+        filter.getGenres().add(genre);
+        return search(filter, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Integer> getGenreCounts() {
+        return genreIndex.counts();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Map<MovieFilter.Facet, Map<String, Long>> getFacets(MovieFilter filter, Set<MovieFilter.Facet> facets) {
+        Specification<Movie> spec = MovieSpecifications.matching(filter);
+        Map<MovieFilter.Facet, Map<String, Long>> result = new EnumMap<>(MovieFilter.Facet.class);
+        for (MovieFilter.Facet facet : facets) {
+            result.put(facet, movieRepository.countFacet(spec, facet));
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Page<Movie> filterByYear(int year, Pageable pageable) {
         return movieRepository.findByYear(year, pageable);
     }
@@ -51,41 +142,77 @@ public class MovieServiceImpl implements MovieService {
                 .orElseThrow(() -> new ResourceNotFoundException("Movie not found with id " + id));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public MovieVersion getMovieVersion(Long id) {
+        return movieRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Movie not found with id " + id));
+    }
+
+    private Page<Movie> hydrate(Page<Long> ids, Pageable pageable) {
+        return new PageImpl<>(load(ids.getContent()), pageable, ids.getTotalElements());
+    }
+
+    /**
+     * Loads the movies of one page of index results, keeping the order the index gave them in.
+     * Ids deleted since the index last saw them drop out.
+     */
+    private List<Movie> load(List<Long> ids) {
+        Map<Long, Movie> movies = movieRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Movie::getId, Function.identity()));
+        return ids.stream()
+                .map(movies::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
     @Override
     public Movie createMovie(Movie movie) {
 
         movie.setAverageRating(0.0);
-        return movieRepository.save(movie);
+        movie.setRatingSum(0);
+        movie.setRatingCount(0);
+        Movie saved = movieRepository.save(movie);
+        eventPublisher.publishEvent(MovieChangedEvent.of(MovieChangedEvent.Type.CREATED, saved));
+        return saved;
     }
 
     @Override
     public Movie updateMovie(Long id, Movie updated) {
-        Movie existing = getMovieById(id);
+        Movie existing = movieRepository.findForUpdateById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Movie not found with id " + id));
         existing.setTitle(updated.getTitle());
         existing.setYear(updated.getYear());
         existing.setPosterPath(updated.getPosterPath());
         existing.setGenres(updated.getGenres());
+        existing.setVersion(existing.getVersion() + 1);
 
-        return movieRepository.save(existing);
+        Movie saved = movieRepository.save(existing);
+        eventPublisher.publishEvent(MovieChangedEvent.of(MovieChangedEvent.Type.UPDATED, saved));
+        return saved;
     }
 
     @Override
     public void deleteMovie(Long id) {
         Movie existing = getMovieById(id);
         movieRepository.delete(existing);
+        eventPublisher.publishEvent(MovieChangedEvent.of(MovieChangedEvent.Type.DELETED, existing));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<Movie> getMoviesAboveRating(double rating, Pageable pageable) {
         return movieRepository.findByAverageRatingGreaterThan(rating, pageable);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<Movie> getMoviesCreatedAfter(LocalDateTime dateTime, Pageable pageable) {
         return movieRepository.findByCreatedAtAfter(dateTime, pageable);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<Movie> getMoviesOrderedByDate(Pageable pageable) {
         return movieRepository.findAllByOrderByCreatedAtDesc(pageable);
     }
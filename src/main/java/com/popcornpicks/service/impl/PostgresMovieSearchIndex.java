@@ -0,0 +1,147 @@
+package com.popcornpicks.service.impl;
+
+import com.popcornpicks.service.MovieSearchIndex;
+import com.popcornpicks.utils.FuzzyTitleMatcher;
+import com.popcornpicks.utils.TitleTokenizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Searches titles in Postgres with the two GIN indexes created by data-postgres.sql:
+ * a full-text index, queried with one prefix term per token ({@code matrix:* & rel:*}), so
+ * every title found contains every token, and a pg_trgm index. Results are ranked by ts_rank
+ * plus trigram similarity; near-misses are left to the fuzzy search.
+ * <p>
+ * Fuzzy search asks the trigram index for titles containing a word similar to every query
+ * token ({@code token <% title}, with a threshold low enough for a swapped pair of letters in a short word),
+ * then verifies the best candidates by edit distance in {@link FuzzyTitleMatcher}.
+ */
+@Service
+@ConditionalOnProperty(name = "popcornpicks.search.engine", havingValue = "postgres")
+public class PostgresMovieSearchIndex implements MovieSearchIndex {
+
+    private static final String MATCHES =
+            " from movies" +
+            " where to_tsvector('simple', title) @@ to_tsquery('simple', :tsquery)";
+
+    // word similarity of "tset" to "test" is only 0.2; the edit distance check does the filtering
+    private static final String FUZZY_THRESHOLD = "0.2";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxFuzzyCandidates;
+
+    public PostgresMovieSearchIndex(NamedParameterJdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${popcornpicks.search.fuzzy.max-candidates:200}") int maxFuzzyCandidates) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.maxFuzzyCandidates = maxFuzzyCandidates;
+    }
+
+    @Override
+    public Page<Long> search(String query, Pageable pageable) {
+        List<String> tokens = TitleTokenizer.tokenize(query);
+        if (tokens.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
+        MapSqlParameterSource params = params(tokens);
+        List<Long> ids = select(params, pageable, pageable.isPaged() ? pageable.getPageSize() : 0);
+
+        Long total = jdbcTemplate.queryForObject("select count(*)" + MATCHES, params, Long.class);
+        return new PageImpl<>(ids, pageable, total == null ? 0 : total);
+    }
+
+    @Override
+    public Slice<Long> searchSlice(String query, Pageable pageable) {
+        List<String> tokens = TitleTokenizer.tokenize(query);
+        if (tokens.isEmpty() || pageable.isUnpaged()) {
+            return search(query, pageable);
+        }
+        // one row past the page instead of a count over every match
+        List<Long> ids = select(params(tokens), pageable, pageable.getPageSize() + 1);
+        boolean hasNext = ids.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? ids.subList(0, pageable.getPageSize()) : ids, pageable, hasNext);
+    }
+
+    @Override
+    public Page<Long> searchFuzzy(String query, Pageable pageable) {
+        List<String> tokens = TitleTokenizer.tokenize(query);
+        if (tokens.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("threshold", FUZZY_THRESHOLD)
+                .addValue("limit", maxFuzzyCandidates);
+        List<String> matches = new ArrayList<>();
+        List<String> similarities = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            params.addValue("t" + i, tokens.get(i));
+            matches.add(":t" + i + " <% title");
+            similarities.add("word_similarity(:t" + i + ", title)");
+        }
+        String select = "select id, title from movies" +
+                " where " + String.join(" and ", matches) +
+                " order by " + String.join(" + ", similarities) + " desc, id" +
+                " limit :limit";
+
+        // set_config(..., true) only lasts until the end of this transaction
+        List<FuzzyMatch> verified = transactionTemplate.execute(status -> {
+            jdbcTemplate.queryForObject("select set_config('pg_trgm.word_similarity_threshold', :threshold, true)",
+                    params, String.class);
+            return jdbcTemplate.query(select, params, (rs, rowNum) -> {
+                String title = rs.getString("title");
+                return new FuzzyMatch(rs.getLong("id"), title,
+                        FuzzyTitleMatcher.score(tokens, TitleTokenizer.tokenize(title)));
+            });
+        });
+        List<Long> ids = verified.stream()
+                .filter(match -> match.score() > 0)
+                .sorted(Comparator.comparingInt(FuzzyMatch::score).reversed()
+                        .thenComparingInt(match -> match.title().length())
+                        .thenComparingLong(FuzzyMatch::id))
+                .map(FuzzyMatch::id)
+                .toList();
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(ids, pageable, ids.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + pageable.getPageSize(), ids.size());
+        return new PageImpl<>(ids.subList(from, to), pageable, ids.size());
+    }
+
+    private static MapSqlParameterSource params(List<String> tokens) {
+        return new MapSqlParameterSource()
+                .addValue("query", String.join(" ", tokens))
+                .addValue("tsquery", tokens.stream().map(token -> token + ":*").collect(Collectors.joining(" & ")));
+    }
+
+    private List<Long> select(MapSqlParameterSource params, Pageable pageable, int limit) {
+        String select = "select id" + MATCHES +
+                " order by ts_rank(to_tsvector('simple', title), to_tsquery('simple', :tsquery))" +
+                "        + similarity(title, :query) desc, id";
+        if (pageable.isPaged()) {
+            select += " limit :limit offset :offset";
+            params.addValue("limit", limit).addValue("offset", pageable.getOffset());
+        }
+        return jdbcTemplate.queryForList(select, params, Long.class);
+    }
+
+    private record FuzzyMatch(long id, String title, int score) { }
+}
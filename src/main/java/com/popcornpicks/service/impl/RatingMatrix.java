@@ -0,0 +1,237 @@
+package com.popcornpicks.service.impl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sparse user-by-movie rating matrix in compressed rows, stored twice: by movie (who rated it)
+ * and by user (what they rated), all in primitive arrays so a few million reviews stay a few
+ * tens of megabytes. Movies and users are addressed by dense indexes; movie indexes follow
+ * ascending movie id. Immutable once built, so any number of threads may read it.
+ */
+final class RatingMatrix {
+
+    enum Measure { COSINE, ADJUSTED_COSINE }
+
+    private final Measure measure;
+    private final long[] movieIds;        // movie index -> movie id, ascending
+    private final int[] movieStart;       // raters of movie m: movieUsers[movieStart[m] .. movieStart[m + 1])
+    private final int[] movieUsers;
+    private final byte[] movieRatings;
+    private final int[] userStart;        // movies of user u: userMovies[userStart[u] .. userStart[u + 1])
+    private final int[] userMovies;
+    private final byte[] userRatings;
+    private final float[] userMeans;      // subtracted from every rating of the user for adjusted cosine
+    private final float[] norms;          // length of each movie's rating vector
+
+    private RatingMatrix(Measure measure, long[] movieIds, int[] movieStart, int[] movieUsers,
+                         byte[] movieRatings, int userCount) {
+        this.measure = measure;
+        this.movieIds = movieIds;
+        this.movieStart = movieStart;
+        this.movieUsers = movieUsers;
+        this.movieRatings = movieRatings;
+
+        // transpose by counting sort on the user index
+        int ratings = movieUsers.length;
+        userStart = new int[userCount + 1];
+        for (int p = 0; p < ratings; p++) {
+            userStart[movieUsers[p] + 1]++;
+        }
+        for (int u = 0; u < userCount; u++) {
+            userStart[u + 1] += userStart[u];
+        }
+        userMovies = new int[ratings];
+        userRatings = new byte[ratings];
+        int[] next = Arrays.copyOf(userStart, userCount);
+        long[] sums = new long[userCount];
+        for (int m = 0; m < movieIds.length; m++) {
+            for (int p = movieStart[m]; p < movieStart[m + 1]; p++) {
+                int u = movieUsers[p];
+                userMovies[next[u]] = m;
+                userRatings[next[u]++] = movieRatings[p];
+                sums[u] += movieRatings[p];
+            }
+        }
+
+        userMeans = new float[userCount];
+        if (measure == Measure.ADJUSTED_COSINE) {
+            for (int u = 0; u < userCount; u++) {
+                userMeans[u] = (float) sums[u] / (userStart[u + 1] - userStart[u]);
+            }
+        }
+        norms = new float[movieIds.length];
+        for (int m = 0; m < movieIds.length; m++) {
+            double squares = 0;
+            for (int p = movieStart[m]; p < movieStart[m + 1]; p++) {
+                float value = movieRatings[p] - userMeans[movieUsers[p]];
+                squares += value * value;
+            }
+            norms[m] = (float) Math.sqrt(squares);
+        }
+    }
+
+    static Builder builder(Measure measure) {
+        return new Builder(measure);
+    }
+
+    Measure measure() {
+        return measure;
+    }
+
+    int movieCount() {
+        return movieIds.length;
+    }
+
+    int ratingCount() {
+        return movieUsers.length;
+    }
+
+    long movieId(int movie) {
+        return movieIds[movie];
+    }
+
+    /** Index of the movie, or a negative number if nobody rated it. */
+    int indexOf(long movieId) {
+        return Arrays.binarySearch(movieIds, movieId);
+    }
+
+    /**
+     * Marks every movie that shares at least one rater with a marked movie. With plain cosine
+     * these are exactly the movies whose similarities change when the marked movies' ratings do.
+     */
+    boolean[] expandToCoRated(boolean[] marked) {
+        boolean[] result = marked.clone();
+        boolean[] seenUser = new boolean[userMeans.length];
+        for (int m = 0; m < marked.length; m++) {
+            if (!marked[m]) {
+                continue;
+            }
+            for (int p = movieStart[m]; p < movieStart[m + 1]; p++) {
+                int u = movieUsers[p];
+                if (seenUser[u]) {
+                    continue;
+                }
+                seenUser[u] = true;
+                for (int q = userStart[u]; q < userStart[u + 1]; q++) {
+                    result[userMovies[q]] = true;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Writes the k most similar movies to {@code movie} into {@code out}, best first, and
+     * returns how many there are. Only movies sharing at least {@code minCommon} raters and
+     * with a positive similarity qualify. The work is proportional to the ratings of the
+     * movie's raters, never to the size of the catalog.
+     */
+    int neighbours(int movie, int k, int minCommon, Scratch scratch, int[] outMovies, float[] outSimilarities) {
+        if (norms[movie] == 0) {
+            return 0;
+        }
+        int touchedCount = 0;
+        for (int p = movieStart[movie]; p < movieStart[movie + 1]; p++) {
+            int u = movieUsers[p];
+            float mean = userMeans[u];
+            float value = movieRatings[p] - mean;
+            for (int q = userStart[u]; q < userStart[u + 1]; q++) {
+                int other = userMovies[q];
+                if (other == movie) {
+                    continue;
+                }
+                if (scratch.common[other]++ == 0) {
+                    scratch.touched[touchedCount++] = other;
+                }
+                scratch.dots[other] += value * (userRatings[q] - mean);
+            }
+        }
+
+        int found = 0;
+        for (int i = 0; i < touchedCount; i++) {
+            int other = scratch.touched[i];
+            float dot = scratch.dots[other];
+            int common = scratch.common[other];
+            scratch.dots[other] = 0;
+            scratch.common[other] = 0;
+            if (common < minCommon || dot <= 0 || norms[other] == 0) {
+                continue;
+            }
+            float similarity = dot / (norms[movie] * norms[other]);
+            if (found == k && !better(similarity, other, outSimilarities[k - 1], outMovies[k - 1])) {
+                continue;
+            }
+            // insertion into the sorted top-k, k is small
+            int pos = found < k ? found++ : k - 1;
+            while (pos > 0 && better(similarity, other, outSimilarities[pos - 1], outMovies[pos - 1])) {
+                outSimilarities[pos] = outSimilarities[pos - 1];
+                outMovies[pos] = outMovies[pos - 1];
+                pos--;
+            }
+            outSimilarities[pos] = similarity;
+            outMovies[pos] = other;
+        }
+        return found;
+    }
+
+    private static boolean better(float similarity, int movie, float otherSimilarity, int otherMovie) {
+        return similarity > otherSimilarity || (similarity == otherSimilarity && movie < otherMovie);
+    }
+
+    /** Per-thread accumulators for {@link #neighbours}; left zeroed after every call. */
+    static final class Scratch {
+        final float[] dots;
+        final int[] common;
+        final int[] touched;
+
+        Scratch(RatingMatrix matrix) {
+            dots = new float[matrix.movieCount()];
+            common = new int[matrix.movieCount()];
+            touched = new int[matrix.movieCount()];
+        }
+    }
+
+    /** Collects ratings grouped by movie in ascending movie id order, as the loading query sorts them. */
+    static final class Builder {
+        private final Measure measure;
+        private final Map<Long, Integer> userIndexes = new HashMap<>();
+        private long[] movieIds = new long[1024];
+        private int[] movieStart = new int[1025];
+        private int movies;
+        private int[] users = new int[16384];
+        private byte[] ratings = new byte[16384];
+        private int size;
+
+        private Builder(Measure measure) {
+            this.measure = measure;
+        }
+
+        Builder add(long movieId, long userId, int rating) {
+            if (movies == 0 || movieIds[movies - 1] != movieId) {
+                if (movies > 0 && movieIds[movies - 1] > movieId) {
+                    throw new IllegalStateException("Ratings must arrive sorted by movie id");
+                }
+                if (movies == movieIds.length) {
+                    movieIds = Arrays.copyOf(movieIds, movies * 2);
+                    movieStart = Arrays.copyOf(movieStart, movies * 2 + 1);
+                }
+                movieIds[movies++] = movieId;
+            }
+            if (size == users.length) {
+                users = Arrays.copyOf(users, size * 2);
+                ratings = Arrays.copyOf(ratings, size * 2);
+            }
+            users[size] = userIndexes.computeIfAbsent(userId, id -> userIndexes.size());
+            ratings[size++] = (byte) rating;
+            movieStart[movies] = size;
+            return this;
+        }
+
+        RatingMatrix build() {
+            return new RatingMatrix(measure, Arrays.copyOf(movieIds, movies), Arrays.copyOf(movieStart, movies + 1),
+                    Arrays.copyOf(users, size), Arrays.copyOf(ratings, size), userIndexes.size());
+        }
+    }
+}
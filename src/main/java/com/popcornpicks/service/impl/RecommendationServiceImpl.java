@@ -0,0 +1,402 @@
+package com.popcornpicks.service.impl;
+
+import com.popcornpicks.dto.RecommendationResponse;
+import com.popcornpicks.events.ReviewCreatedEvent;
+import com.popcornpicks.events.SimilarMoviesRecomputedEvent;
+import com.popcornpicks.events.WatchlistItemAddedEvent;
+import com.popcornpicks.exceptions.ResourceNotFoundException;
+import com.popcornpicks.repository.MovieRepository;
+import com.popcornpicks.repository.MovieSummary;
+import com.popcornpicks.repository.UserRepository;
+import com.popcornpicks.service.RecommendationService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Item-based neighbourhood recommendations. Every user's reviews and watchlist are held as a
+ * user-by-movie interaction matrix in compressed primitive arrays, the similar-movies lists as an
+ * {@link ItemNeighbourModel}, and each user's top-N list is precomputed from the two, so a
+ * request is a lookup plus one query for the titles.
+ * <p>
+ * A rebuild (at startup and, on a background thread, after every similar-movies run) recomputes
+ * all lists in parallel.
+ * In between, a new review or watchlist entry updates that user's row in an overlay and
+ * recomputes only their list. A rebuild reads and computes without holding the lock those
+ * updates take; the updates that arrive meanwhile are recorded and replayed onto the rebuilt
+ * state when it is swapped in. Interactions are recorded as "has rated r" / "has watchlisted",
+ * not as increments, so replaying an update the rebuild already read cannot count twice.
+ * Edits and deletes are picked up by the next rebuild.
+ */
+@Service
+public class RecommendationServiceImpl implements RecommendationService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecommendationServiceImpl.class);
+
+    private static final String SELECT_NEIGHBOURS =
+            "select movie_id, neighbour_id, similarity from movie_neighbours order by movie_id, neighbour_rank";
+    // rating 0 marks a watchlist row; a reviewed and watchlisted movie arrives as two adjacent rows
+    private static final String SELECT_INTERACTIONS = """
+            select user_id, movie_id, rating from reviews
+            union all
+            select user_id, movie_id, 0 from watchlist_items
+            order by user_id, movie_id
+            """;
+
+    // an interaction is one byte: the rating (0 = not reviewed) in the low bits, plus this flag
+    private static final byte WATCHLISTED = 0x8;
+    private static final byte RATING_MASK = 0x7;
+    private static final float WATCHLIST_WEIGHT = 0.5f;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readTransaction;
+    private final MovieRepository movieRepository;
+    private final UserRepository userRepository;
+    private final int listSize;
+
+    private volatile State state;
+
+    // guarded by this: non-null while a rebuild is reading, collects the updates to replay onto it
+    private List<Interaction> pendingRefreshes;
+
+    // one rebuild at a time; never held by the event listeners
+    private final Object rebuildLock = new Object();
+
+    // rebuilds requested by similar-movies runs; one queued rebuild covers every run before it starts
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "recommendations-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+
+    public RecommendationServiceImpl(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            MovieRepository movieRepository,
+            UserRepository userRepository,
+            @Value("${popcornpicks.recommendations.list-size:50}") int listSize,
+            @Value("${popcornpicks.recommendations.fetch-size:10000}") int fetchSize
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.movieRepository = movieRepository;
+        this.userRepository = userRepository;
+        this.listSize = listSize;
+        this.state = new State(ItemNeighbourModel.builder().build(), new Interactions.Builder().build(), listSize);
+    }
+
+    @Override
+    public List<RecommendationResponse> getRecommendations(Long userId, int limit) {
+        TopN top = state.list(userId);
+        if (top == null) {
+            if (!userRepository.existsById(userId)) {
+                throw new ResourceNotFoundException("User not found: " + userId);
+            }
+            return List.of();
+        }
+
+        int count = Math.min(limit, top.count());
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(top.movies()[i]);
+        }
+        // movies deleted since the list was computed drop out here
+        Map<Long, String> titles = movieRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(MovieSummary::getId, MovieSummary::getTitle));
+        List<RecommendationResponse> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String title = titles.get(ids.get(i));
+            if (title != null) {
+                result.add(new RecommendationResponse(result.size() + 1, ids.get(i), title, top.scores()[i]));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                pendingRefreshes = new ArrayList<>();
+            }
+            try {
+                long started = System.nanoTime();
+                State rebuilt = read();
+                rebuilt.computeAll();
+                int replayed;
+                synchronized (this) {
+                    pendingRefreshes.forEach(pending -> apply(rebuilt, pending));
+                    replayed = pendingRefreshes.size();
+                    state = rebuilt;
+                }
+                log.info("Rebuilt recommendations for {} users from {} movies in the neighbour graph in {} ms, "
+                                + "replayed {} updates",
+                        rebuilt.interactions.userCount(), rebuilt.model.movieCount(),
+                        (System.nanoTime() - started) / 1_000_000, replayed);
+            } finally {
+                synchronized (this) {
+                    pendingRefreshes = null;
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSimilarMoviesRecomputed(SimilarMoviesRecomputedEvent event) {
+        // the admin request or scheduled job that published the event does not wait for the rebuild
+        if (rebuildQueued.compareAndSet(false, true)) {
+            rebuilder.execute(this::runQueuedRebuild);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewCreated(ReviewCreatedEvent event) {
+        refresh(event.userId(), event.movieId(), (byte) event.rating());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWatchlistItemAdded(WatchlistItemAddedEvent event) {
+        refresh(event.userId(), event.movieId(), WATCHLISTED);
+    }
+
+    @PreDestroy
+    public void stopRebuilder() throws InterruptedException {
+        rebuilder.shutdownNow();
+        rebuilder.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    private void runQueuedRebuild() {
+        rebuildQueued.set(false);
+        try {
+            rebuild();
+        } catch (RuntimeException ex) {
+            // the current lists stay in place until the next similar-movies run
+            log.warn("Recommendations rebuild failed", ex);
+        }
+    }
+
+    private State read() {
+        ItemNeighbourModel.Builder model = ItemNeighbourModel.builder();
+        Interactions.Builder interactions = new Interactions.Builder();
+        readTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.query(SELECT_NEIGHBOURS,
+                    rs -> { model.add(rs.getLong(1), rs.getLong(2), rs.getFloat(3)); });
+            jdbcTemplate.query(SELECT_INTERACTIONS,
+                    rs -> { interactions.add(rs.getLong(1), rs.getLong(2), rs.getInt(3)); });
+        });
+        return new State(model.build(), interactions.build(), listSize);
+    }
+
+    // recorded while a rebuild runs, so the update also lands in the state that replaces the current one
+    private synchronized void refresh(Long userId, Long movieId, byte interaction) {
+        Interaction update = new Interaction(userId, movieId, interaction);
+        apply(state, update);
+        if (pendingRefreshes != null) {
+            pendingRefreshes.add(update);
+        }
+    }
+
+    private static void apply(State target, Interaction update) {
+        Profile updated = target.profile(update.userId()).with(update.movieId(), update.interaction());
+        target.profiles.put(update.userId(), updated);
+        target.lists.put(update.userId(), target.score(updated, target.refreshScratch));
+    }
+
+    private static float weight(byte interaction) {
+        int rating = interaction & RATING_MASK;
+        float weight = rating == 0 ? 0 : (rating - 3) / 2f;     // 1 star = -1, 5 stars = +1
+        return (interaction & WATCHLISTED) != 0 ? weight + WATCHLIST_WEIGHT : weight;
+    }
+
+    /** One user's interactions, sorted by movie id. */
+    private record Profile(long[] movies, byte[] interactions) {
+
+        static final Profile EMPTY = new Profile(new long[0], new byte[0]);
+
+        Profile with(long movieId, byte interaction) {
+            int pos = Arrays.binarySearch(movies, movieId);
+            if (pos >= 0) {
+                byte[] merged = interactions.clone();
+                // a new review replaces the rating bits, a watchlist add only sets its flag
+                merged[pos] = (interaction & RATING_MASK) != 0
+                        ? (byte) ((merged[pos] & WATCHLISTED) | interaction)
+                        : (byte) (merged[pos] | interaction);
+                return new Profile(movies, merged);
+            }
+            int insert = -pos - 1;
+            long[] grownMovies = new long[movies.length + 1];
+            byte[] grownInteractions = new byte[movies.length + 1];
+            System.arraycopy(movies, 0, grownMovies, 0, insert);
+            System.arraycopy(interactions, 0, grownInteractions, 0, insert);
+            grownMovies[insert] = movieId;
+            grownInteractions[insert] = interaction;
+            System.arraycopy(movies, insert, grownMovies, insert + 1, movies.length - insert);
+            System.arraycopy(interactions, insert, grownInteractions, insert + 1, movies.length - insert);
+            return new Profile(grownMovies, grownInteractions);
+        }
+
+        float[] weights() {
+            float[] weights = new float[interactions.length];
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = weight(interactions[i]);
+            }
+            return weights;
+        }
+    }
+
+    private record TopN(long[] movies, float[] scores, int count) { }
+
+    private record Interaction(Long userId, Long movieId, byte interaction) { }
+
+    /** The user-by-movie interaction matrix in compressed rows, users in ascending id order. */
+    private static final class Interactions {
+        final long[] userIds;
+        final int[] start;          // movies of user u: movies[start[u] .. start[u + 1])
+        final long[] movies;
+        final byte[] interactions;
+
+        private Interactions(long[] userIds, int[] start, long[] movies, byte[] interactions) {
+            this.userIds = userIds;
+            this.start = start;
+            this.movies = movies;
+            this.interactions = interactions;
+        }
+
+        int userCount() {
+            return userIds.length;
+        }
+
+        Profile profile(int user) {
+            return new Profile(Arrays.copyOfRange(movies, start[user], start[user + 1]),
+                    Arrays.copyOfRange(interactions, start[user], start[user + 1]));
+        }
+
+        static final class Builder {
+            private long[] userIds = new long[1024];
+            private int[] start = new int[1025];
+            private int users;
+            private long[] movies = new long[16384];
+            private byte[] interactions = new byte[16384];
+            private int size;
+
+            Interactions.Builder add(long userId, long movieId, int rating) {
+                byte interaction = rating == 0 ? WATCHLISTED : (byte) rating;
+                boolean sameUser = users > 0 && userIds[users - 1] == userId;
+                if (sameUser && movies[size - 1] == movieId) {
+                    interactions[size - 1] |= interaction;
+                    return this;
+                }
+                if (!sameUser) {
+                    if (users == userIds.length) {
+                        userIds = Arrays.copyOf(userIds, users * 2);
+                        start = Arrays.copyOf(start, users * 2 + 1);
+                    }
+                    userIds[users++] = userId;
+                }
+                if (size == movies.length) {
+                    movies = Arrays.copyOf(movies, size * 2);
+                    interactions = Arrays.copyOf(interactions, size * 2);
+                }
+                movies[size] = movieId;
+                interactions[size++] = interaction;
+                start[users] = size;
+                return this;
+            }
+
+            Interactions build() {
+                return new Interactions(Arrays.copyOf(userIds, users), Arrays.copyOf(start, users + 1),
+                        Arrays.copyOf(movies, size), Arrays.copyOf(interactions, size));
+            }
+        }
+    }
+
+    /**
+     * Everything one rebuild produced: the top-N lists of all users in flat arrays, plus
+     * overlays for the users refreshed since.
+     */
+    private static final class State {
+        final ItemNeighbourModel model;
+        final Interactions interactions;
+        final int listSize;
+        final long[] recommended;       // list of user u: recommended[u * listSize ..] with counts[u] entries
+        final float[] scores;
+        final int[] counts;
+        final Map<Long, Profile> profiles = new ConcurrentHashMap<>();
+        final Map<Long, TopN> lists = new ConcurrentHashMap<>();
+        final ItemNeighbourModel.Scratch refreshScratch;    // guarded by the service lock
+
+        State(ItemNeighbourModel model, Interactions interactions, int listSize) {
+            this.model = model;
+            this.interactions = interactions;
+            this.listSize = listSize;
+            this.recommended = new long[interactions.userCount() * listSize];
+            this.scores = new float[interactions.userCount() * listSize];
+            this.counts = new int[interactions.userCount()];
+            this.refreshScratch = new ItemNeighbourModel.Scratch(model);
+        }
+
+        void computeAll() {
+            ThreadLocal<ItemNeighbourModel.Scratch> scratch = ThreadLocal.withInitial(() -> new ItemNeighbourModel.Scratch(model));
+            IntStream.range(0, interactions.userCount()).parallel().forEach(user -> {
+                Profile profile = interactions.profile(user);
+                counts[user] = model.recommend(profile.movies(), profile.weights(), listSize, scratch.get(),
+                        recommended, scores, user * listSize);
+            });
+        }
+
+        Profile profile(Long userId) {
+            Profile refreshed = profiles.get(userId);
+            if (refreshed != null) {
+                return refreshed;
+            }
+            int user = Arrays.binarySearch(interactions.userIds, userId);
+            return user >= 0 ? interactions.profile(user) : Profile.EMPTY;
+        }
+
+        TopN list(Long userId) {
+            TopN refreshed = lists.get(userId);
+            if (refreshed != null) {
+                return refreshed;
+            }
+            int user = Arrays.binarySearch(interactions.userIds, userId);
+            if (user < 0) {
+                return null;
+            }
+            int from = user * listSize;
+            return new TopN(Arrays.copyOfRange(recommended, from, from + counts[user]),
+                    Arrays.copyOfRange(scores, from, from + counts[user]), counts[user]);
+        }
+
+        TopN score(Profile profile, ItemNeighbourModel.Scratch scratch) {
+            long[] movies = new long[listSize];
+            float[] top = new float[listSize];
+            int count = model.recommend(profile.movies(), profile.weights(), listSize, scratch, movies, top, 0);
+            return new TopN(movies, top, count);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.popcornpicks.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.popcornpicks.dto.ImportIssue;
+import com.popcornpicks.dto.ImportResponse;
+import com.popcornpicks.dto.ReviewImportRow;
+import com.popcornpicks.events.RatingsRecomputedEvent;
+import com.popcornpicks.repository.MovieRepository;
+import com.popcornpicks.service.RatingAggregator;
+import com.popcornpicks.service.ReviewImportService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk review import for partner migrations. Rows are validated and inserted per batch
+ * with one multi-row insert; rows that hit uk_user_movie_review are skipped by the
+ * database, and every row whose key the insert does not hand back is reported as a
+ * duplicate. Rating aggregates of the touched movies are recomputed once at the end
+ * instead of once per review.
+ */
+@Service
+public class ReviewImportServiceImpl implements ReviewImportService {
+
+    static final String DUPLICATE = "DUPLICATE";
+    static final String REJECTED = "REJECTED";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final ConflictSkippingInsert insertReviews;
+    private final TransactionTemplate transactionTemplate;
+    private final MovieRepository movieRepository;
+    private final RatingAggregator ratingAggregator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectReader rowReader;
+    private final int batchSize;
+    private final int maxReportedIssues;
+
+    public ReviewImportServiceImpl(
+            JdbcTemplate jdbcTemplate,
+            NamedParameterJdbcTemplate namedJdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MovieRepository movieRepository,
+            RatingAggregator ratingAggregator,
+            ApplicationEventPublisher eventPublisher,
+            ObjectMapper objectMapper,
+            @Value("${popcornpicks.import.batch-size:1000}") int batchSize,
+            @Value("${popcornpicks.import.max-reported-issues:1000}") int maxReportedIssues
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.insertReviews = new ConflictSkippingInsert(jdbcTemplate.getDataSource(), "reviews",
+                List.of("user_id", "movie_id", "rating", "comment", "created_at"), "user_id, movie_id");
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.movieRepository = movieRepository;
+        this.ratingAggregator = ratingAggregator;
+        this.eventPublisher = eventPublisher;
+        this.rowReader = objectMapper.readerFor(ReviewImportRow.class);
+        this.batchSize = batchSize;
+        this.maxReportedIssues = maxReportedIssues;
+    }
+
+    @Override
+    public ImportResponse importReviews(InputStream ndjson) {
+        ImportResponse response = new ImportResponse();
+        Set<Long> touchedMovies = new HashSet<>();
+        List<NumberedRow> batch = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                response.setReceived(response.getReceived() + 1);
+
+                ReviewImportRow row;
+                try {
+                    row = rowReader.readValue(line);
+                } catch (JsonProcessingException ex) {
+                    reject(response, lineNumber, "Malformed JSON: " + ex.getOriginalMessage());
+                    continue;
+                }
+                String invalid = validate(row);
+                if (invalid != null) {
+                    reject(response, lineNumber, invalid);
+                    continue;
+                }
+
+                batch.add(new NumberedRow(lineNumber, row));
+                if (batch.size() >= batchSize) {
+                    importBatch(batch, response, touchedMovies);
+                    batch.clear();
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read review import stream", ex);
+        }
+        if (!batch.isEmpty()) {
+            importBatch(batch, response, touchedMovies);
+        }
+
+        recomputeAggregates(touchedMovies);
+        return response;
+    }
+
+    private void importBatch(List<NumberedRow> batch, ImportResponse response, Set<Long> touchedMovies) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<Long> knownUsers = existingIds("users", batch.stream().map(r -> r.row().getUserId()).toList());
+            Set<Long> knownMovies = existingIds("movies", batch.stream().map(r -> r.row().getMovieId()).toList());
+
+            List<NumberedRow> insertable = new ArrayList<>(batch.size());
+            for (NumberedRow numbered : batch) {
+                ReviewImportRow row = numbered.row();
+                if (!knownUsers.contains(row.getUserId())) {
+                    reject(response, numbered.line(), "User not found with id " + row.getUserId());
+                } else if (!knownMovies.contains(row.getMovieId())) {
+                    reject(response, numbered.line(), "Movie not found with id " + row.getMovieId());
+                } else {
+                    insertable.add(numbered);
+                }
+            }
+            if (insertable.isEmpty()) {
+                return;
+            }
+
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> rows = insertable.stream().map(numbered -> {
+                ReviewImportRow row = numbered.row();
+                return new Object[]{row.getUserId(), row.getMovieId(), row.getRating(), row.getComment(),
+                        row.getCreatedAt() != null ? Timestamp.valueOf(row.getCreatedAt()) : now};
+            }).toList();
+            // outcomes come from the inserted keys, not from update counts; a key listed twice
+            // in the batch is inserted once, by its first row
+            Set<ReviewKey> inserted = new HashSet<>(insertReviews.insert(jdbcTemplate, rows,
+                    (rs, rowNum) -> new ReviewKey(rs.getLong("user_id"), rs.getLong("movie_id"))));
+
+            for (NumberedRow numbered : insertable) {
+                ReviewImportRow row = numbered.row();
+                if (inserted.remove(new ReviewKey(row.getUserId(), row.getMovieId()))) {
+                    response.setImported(response.getImported() + 1);
+                    touchedMovies.add(row.getMovieId());
+                } else {
+                    response.setDuplicates(response.getDuplicates() + 1);
+                    report(response, new ImportIssue(numbered.line(), DUPLICATE,
+                            "Review already exists for user " + row.getUserId()
+                                    + " and movie " + row.getMovieId()));
+                }
+            }
+        });
+    }
+
+    private void recomputeAggregates(Set<Long> movieIds) {
+        if (movieIds.isEmpty()) {
+            return;
+        }
+        // queued write-behind deltas would otherwise be applied on top of the fresh totals
+        ratingAggregator.flush();
+        List<Long> ids = new ArrayList<>(movieIds);
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            transactionTemplate.executeWithoutResult(status -> movieRepository.recomputeRatingAggregates(chunk));
+        }
+        eventPublisher.publishEvent(new RatingsRecomputedEvent(ids));
+    }
+
+    private Set<Long> existingIds(String table, List<Long> ids) {
+        return new HashSet<>(namedJdbcTemplate.queryForList(
+                "select id from " + table + " where id in (:ids)",
+                Map.of("ids", new HashSet<>(ids)),
+                Long.class
+        ));
+    }
+
+    private String validate(ReviewImportRow row) {
+        if (row == null || row.getUserId() == null) {
+            return "userId is required";
+        }
+        if (row.getMovieId() == null) {
+            return "movieId is required";
+        }
+        if (row.getRating() == null || row.getRating() < 1 || row.getRating() > 5) {
+            return "Rating must be between 1 and 5";
+        }
+        if (row.getComment() != null && row.getComment().length() > 1000) {
+            return "comment must be at most 1000 characters";
+        }
+        return null;
+    }
+
+    private void reject(ImportResponse response, long line, String reason) {
+        response.setRejected(response.getRejected() + 1);
+        report(response, new ImportIssue(line, REJECTED, reason));
+    }
+
+    private void report(ImportResponse response, ImportIssue issue) {
+        if (response.getIssues().size() < maxReportedIssues) {
+            response.getIssues().add(issue);
+        } else {
+            response.setIssuesTruncated(true);
+        }
+    }
+
+    private record NumberedRow(long line, ReviewImportRow row) { }
+
+    private record ReviewKey(long userId, long movieId) { }
+}
@@ -1,21 +1,33 @@
 package com.popcornpicks.service.impl;
 
+import com.popcornpicks.dto.ReviewResponse;
+import com.popcornpicks.events.RatingsRecomputedEvent;
+import com.popcornpicks.events.ReviewCreatedEvent;
 import com.popcornpicks.exceptions.DuplicateReviewException;
 import com.popcornpicks.exceptions.ResourceNotFoundException;
-import com.popcornpicks.models.Movie;
+import com.popcornpicks.models.RatingDelta;
 import com.popcornpicks.models.Review;
-import com.popcornpicks.models.User;
 import com.popcornpicks.repository.MovieRepository;
 import com.popcornpicks.repository.ReviewRepository;
 import com.popcornpicks.repository.UserRepository;
+import com.popcornpicks.service.RatingAggregator;
 import com.popcornpicks.service.ReviewService;
+import com.popcornpicks.utils.KeysetCursor;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Locale;
 
 @Service
 @Transactional
@@ -24,16 +36,22 @@ public class ReviewServiceImpl implements ReviewService {
     private final ReviewRepository reviewRepository;
     private final UserRepository userRepository;
     private final MovieRepository movieRepository;
+    private final RatingAggregator ratingAggregator;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public ReviewServiceImpl(
             ReviewRepository reviewRepository,
             UserRepository userRepository,
-            MovieRepository movieRepository
+            MovieRepository movieRepository,
+            RatingAggregator ratingAggregator,
+            ApplicationEventPublisher eventPublisher
     ) {
         this.reviewRepository = reviewRepository;
         this.userRepository = userRepository;
         this.movieRepository = movieRepository;
+        this.ratingAggregator = ratingAggregator;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -44,26 +62,43 @@ public class ReviewServiceImpl implements ReviewService {
         }
 
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id " + userId));
-        Movie movie = movieRepository.findById(movieId)
-                .orElseThrow(() -> new ResourceNotFoundException("Movie not found with id " + movieId));
+        // references instead of lookups: the foreign keys and uk_user_movie_review reject
+        // unknown ids and duplicates in the same round trip as the insert
+        Review review = new Review(rating, comment,
+                userRepository.getReferenceById(userId),
+                movieRepository.getReferenceById(movieId));
+        Review saved;
+        try {
+            saved = reviewRepository.saveAndFlush(review);
+        } catch (DataIntegrityViolationException ex) {
+            throw translateInsertFailure(ex, userId, movieId);
+        }
+
+        applyRatingDelta(movieId, RatingDelta.added(rating));
+        eventPublisher.publishEvent(new ReviewCreatedEvent(saved.getId(), userId, movieId, rating));
 
+        return saved;
+    }
 
-        if (reviewRepository.findByUserIdAndMovieId(userId, movieId).isPresent()) {
-            throw new DuplicateReviewException(
+    private RuntimeException translateInsertFailure(DataIntegrityViolationException ex, Long userId, Long movieId) {
+        // not every dialect extracts the name, but every driver message we use mentions it
+        String constraint = ex.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                ? violation.getConstraintName()
+                : String.valueOf(ex.getMostSpecificCause().getMessage());
+        constraint = constraint.toLowerCase(Locale.ROOT);
+        if (constraint.contains("uk_user_movie_review")) {
+            return new DuplicateReviewException(
                     "Review already exists for user " + userId + " and movie " + movieId
             );
         }
-
-
-        Review review = new Review(rating, comment, user, movie);
-        Review saved = reviewRepository.save(review);
-
-
-        recalcAverageRating(movieId);
-
-        return saved;
+        if (constraint.contains("fk_reviews_user")) {
+            return new ResourceNotFoundException("User not found with id " + userId);
+        }
+        if (constraint.contains("fk_reviews_movie")) {
+            return new ResourceNotFoundException("Movie not found with id " + movieId);
+        }
+        return ex;
     }
 
     @Override
@@ -75,11 +110,14 @@ public class ReviewServiceImpl implements ReviewService {
         Review existing = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new ResourceNotFoundException("Review not found with id " + reviewId));
 
+        int previousRating = existing.getRating();
         existing.setRating(rating);
         existing.setComment(comment);
         Review updated = reviewRepository.save(existing);
 
-        recalcAverageRating(existing.getMovie().getId());
+        if (rating != previousRating) {
+            applyRatingDelta(existing.getMovie().getId(), RatingDelta.changed(previousRating, rating));
+        }
         return updated;
     }
 
@@ -90,25 +128,68 @@ public class ReviewServiceImpl implements ReviewService {
         Long movieId = existing.getMovie().getId();
 
         reviewRepository.delete(existing);
-        recalcAverageRating(movieId);
+        applyRatingDelta(movieId, RatingDelta.removed(existing.getRating()));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<Review> getReviewsByMovie(Long movieId, Pageable pageable) {
+    public Page<ReviewResponse> getReviewsByMovie(Long movieId, Pageable pageable) {
         if (!movieRepository.existsById(movieId)) {
             throw new ResourceNotFoundException("Movie not found with id " + movieId);
         }
-        return reviewRepository.findByMovieId(movieId, pageable);
+        return reviewRepository.findResponsesByMovieId(movieId, pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<Review> getReviewsByUser(Long userId, Pageable pageable) {
+    public Page<ReviewResponse> getReviewsByUser(Long userId, Pageable pageable) {
         if (!userRepository.existsById(userId)) {
             throw new ResourceNotFoundException("User not found with id " + userId);
         }
-        return reviewRepository.findByUserId(userId, pageable);
+        return reviewRepository.findResponsesByUserId(userId, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<ReviewResponse> getReviewSliceByMovie(Long movieId, Pageable pageable) {
+        if (!movieRepository.existsById(movieId)) {
+            throw new ResourceNotFoundException("Movie not found with id " + movieId);
+        }
+        return reviewRepository.findResponseSliceByMovieId(movieId, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<ReviewResponse> getReviewSliceByUser(Long userId, Pageable pageable) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found with id " + userId);
+        }
+        return reviewRepository.findResponseSliceByUserId(userId, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<ReviewResponse> getReviewsByMovieAfter(Long movieId, KeysetCursor after, int limit) {
+        if (!movieRepository.existsById(movieId)) {
+            throw new ResourceNotFoundException("Movie not found with id " + movieId);
+        }
+        // one extra row tells us whether another page exists, without a count query
+        List<ReviewResponse> rows = after == null
+                ? reviewRepository.findLatestByMovieId(movieId, Limit.of(limit + 1))
+                : reviewRepository.findByMovieIdBefore(movieId, after.createdAt(), after.id(), Limit.of(limit + 1));
+        return toSlice(rows, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<ReviewResponse> getReviewsByUserAfter(Long userId, KeysetCursor after, int limit) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found with id " + userId);
+        }
+        List<ReviewResponse> rows = after == null
+                ? reviewRepository.findLatestByUserId(userId, Limit.of(limit + 1))
+                : reviewRepository.findByUserIdBefore(userId, after.createdAt(), after.id(), Limit.of(limit + 1));
+        return toSlice(rows, limit);
     }
 
     @Override
@@ -118,17 +199,24 @@ public class ReviewServiceImpl implements ReviewService {
                 .orElseThrow(() -> new ResourceNotFoundException("Review not found with id " + reviewId));
     }
 
+    @Override
+    public int reconcileRatingAggregates() {
+        // pending deltas must land first, or they would be counted twice after the rebuild
+        ratingAggregator.flush();
+        int updated = movieRepository.recomputeAllRatingAggregates();
+        eventPublisher.publishEvent(RatingsRecomputedEvent.all());
+        return updated;
+    }
+
 
 
-    private void recalcAverageRating(Long movieId) {
-        List<Review> reviews = reviewRepository.findByMovieId(movieId);
-        double avg = reviews.stream()
-                .mapToInt(Review::getRating)
-                .average()
-                .orElse(0.0);
-        Movie movie = movieRepository.findById(movieId)
-                .orElseThrow(() -> new ResourceNotFoundException("Movie not found with id " + movieId));
-        movie.setAverageRating(avg);
-        movieRepository.save(movie);
+    private void applyRatingDelta(Long movieId, RatingDelta delta) {
+        ratingAggregator.record(movieId, delta);
+    }
+
+    private Slice<ReviewResponse> toSlice(List<ReviewResponse> rows, int limit) {
+        boolean hasNext = rows.size() > limit;
+        List<ReviewResponse> content = hasNext ? rows.subList(0, limit) : rows;
+        return new SliceImpl<>(content, PageRequest.ofSize(limit), hasNext);
     }
 }
@@ -0,0 +1,329 @@
+package com.popcornpicks.service.impl;
+
+import com.popcornpicks.dto.SimilarMovieResponse;
+import com.popcornpicks.dto.SimilarityJobResponse;
+import com.popcornpicks.events.MovieChangedEvent;
+import com.popcornpicks.events.RatingChangedEvent;
+import com.popcornpicks.events.RatingsRecomputedEvent;
+import com.popcornpicks.events.SimilarMoviesRecomputedEvent;
+import com.popcornpicks.repository.MovieNeighbourRepository;
+import com.popcornpicks.service.SimilarMoviesService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Item-to-item "similar movies" computed offline. A run streams every review into a
+ * {@link RatingMatrix}, computes the top-k cosine (or adjusted cosine) neighbours of each movie
+ * in parallel on a fork/join pool, and replaces those movies' rows in movie_neighbours, so the
+ * endpoint only ever reads a precomputed list.
+ * <p>
+ * Runs are incremental: rating changes mark their movie, and the next run recomputes the marked
+ * movies and every movie sharing a rater with them. That is exact for plain cosine; with
+ * adjusted cosine a changed user mean also shifts pairs further away, which the next full run
+ * (the first one after startup, or one requested by an admin) picks up.
+ */
+@Service
+public class SimilarMoviesServiceImpl implements SimilarMoviesService {
+
+    private static final Logger log = LoggerFactory.getLogger(SimilarMoviesServiceImpl.class);
+
+    private static final String SELECT_RATINGS =
+            "select movie_id, user_id, rating from reviews order by movie_id";
+    private static final String DELETE_NEIGHBOURS = "delete from movie_neighbours where movie_id = ?";
+    private static final String INSERT_NEIGHBOUR = """
+            insert into movie_neighbours (movie_id, neighbour_rank, neighbour_id, similarity)
+            values (?, ?, ?, ?)
+            """;
+    private static final int MOVIES_PER_TRANSACTION = 500;
+
+    private final MovieNeighbourRepository neighbourRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final RatingMatrix.Measure measure;
+    private final int neighbours;
+    private final int minCommonRaters;
+    private final int parallelism;
+
+    private final Set<Long> changedMovies = ConcurrentHashMap.newKeySet();
+    private volatile boolean fullRunPending = true;     // changes before startup are unknown
+    private final AtomicInteger moviesDone = new AtomicInteger();
+    private volatile int moviesToDo;
+    private final Timer runTimer;
+
+    public SimilarMoviesServiceImpl(
+            MovieNeighbourRepository neighbourRepository,
+            ApplicationEventPublisher eventPublisher,
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${popcornpicks.similar.measure:adjusted-cosine}") String measure,
+            @Value("${popcornpicks.similar.neighbours:20}") int neighbours,
+            @Value("${popcornpicks.similar.min-common-raters:3}") int minCommonRaters,
+            @Value("${popcornpicks.similar.fetch-size:10000}") int fetchSize,
+            @Value("${popcornpicks.similar.parallelism:0}") int parallelism
+    ) {
+        this.neighbourRepository = neighbourRepository;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        // also used from after-commit listeners, where joining the finished transaction would lose the writes
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.measure = RatingMatrix.Measure.valueOf(measure.toUpperCase(Locale.ROOT).replace('-', '_'));
+        this.neighbours = neighbours;
+        this.minCommonRaters = minCommonRaters;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+
+        Gauge.builder("similar.movies.job.progress", this,
+                        service -> service.moviesToDo == 0 ? 1.0 : (double) service.moviesDone.get() / service.moviesToDo)
+                .description("Share of the current run's movies whose neighbours are computed")
+                .register(meterRegistry);
+        Gauge.builder("similar.movies.job.pending", changedMovies, Set::size)
+                .description("Movies with rating changes waiting for the next run")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("similar.movies.job")
+                .description("Time spent in one similar-movies run")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SimilarMovieResponse> getSimilar(Long movieId, int limit) {
+        return neighbourRepository.findSimilar(movieId, Limit.of(limit));
+    }
+
+    @Scheduled(initialDelayString = "${popcornpicks.similar.initial-delay-ms:60000}",
+            fixedDelayString = "${popcornpicks.similar.interval-ms:3600000}")
+    public void scheduledRun() {
+        if (fullRunPending || !changedMovies.isEmpty()) {
+            recompute(false);
+        }
+    }
+
+    @Override
+    public synchronized SimilarityJobResponse recompute(boolean full) {
+        boolean fullRun = full || fullRunPending;
+        fullRunPending = false;
+        Set<Long> changed = new HashSet<>(changedMovies);
+        changedMovies.removeAll(changed);
+        SimilarityJobResponse response;
+        try {
+            response = runTimer.record(() -> run(fullRun, changed));
+        } catch (RuntimeException ex) {
+            // retried by the next run
+            changedMovies.addAll(changed);
+            fullRunPending |= fullRun;
+            throw ex;
+        }
+        eventPublisher.publishEvent(new SimilarMoviesRecomputedEvent(fullRun, response.getMoviesRecomputed()));
+        return response;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatingChanged(RatingChangedEvent event) {
+        changedMovies.add(event.movieId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatingsRecomputed(RatingsRecomputedEvent event) {
+        // a reconcile of every aggregate (null ids) leaves the reviews themselves untouched
+        if (event.movieIds() != null) {
+            changedMovies.addAll(event.movieIds());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        if (event.type() == MovieChangedEvent.Type.DELETED) {
+            changedMovies.remove(event.movieId());
+            writeTransaction.executeWithoutResult(status -> jdbcTemplate.update(DELETE_NEIGHBOURS, event.movieId()));
+        }
+    }
+
+    private SimilarityJobResponse run(boolean full, Set<Long> changed) {
+        long started = System.nanoTime();
+        RatingMatrix matrix = load();
+
+        List<Long> emptied = new ArrayList<>();
+        int[] targets;
+        if (full) {
+            targets = new int[matrix.movieCount()];
+            for (int m = 0; m < targets.length; m++) {
+                targets[m] = m;
+            }
+        } else {
+            boolean[] marked = new boolean[matrix.movieCount()];
+            for (Long movieId : changed) {
+                int index = matrix.indexOf(movieId);
+                if (index >= 0) {
+                    marked[index] = true;
+                } else {
+                    emptied.add(movieId);       // its last review is gone
+                }
+            }
+            boolean[] affected = matrix.expandToCoRated(marked);
+            int count = 0;
+            for (boolean a : affected) {
+                count += a ? 1 : 0;
+            }
+            targets = new int[count];
+            for (int m = 0, i = 0; m < affected.length; m++) {
+                if (affected[m]) {
+                    targets[i++] = m;
+                }
+            }
+        }
+
+        Neighbours result = compute(matrix, targets);
+        long written = write(matrix, targets, result);
+        writeTransaction.executeWithoutResult(status -> {
+            if (full) {
+                jdbcTemplate.update("delete from movie_neighbours where movie_id not in (select movie_id from reviews)");
+            } else if (!emptied.isEmpty()) {
+                jdbcTemplate.batchUpdate(DELETE_NEIGHBOURS, emptied.stream().map(id -> new Object[]{id}).toList());
+            }
+        });
+
+        SimilarityJobResponse response = new SimilarityJobResponse();
+        response.setFull(full);
+        response.setRatingsLoaded(matrix.ratingCount());
+        response.setMoviesRecomputed(targets.length);
+        response.setNeighboursWritten(written);
+        response.setElapsedMillis((System.nanoTime() - started) / 1_000_000);
+        log.info("Similar movies {} run: {} ratings, {} movies recomputed, {} neighbours written in {} ms",
+                full ? "full" : "incremental", response.getRatingsLoaded(), response.getMoviesRecomputed(),
+                written, response.getElapsedMillis());
+        return response;
+    }
+
+    private RatingMatrix load() {
+        RatingMatrix.Builder builder = RatingMatrix.builder(measure);
+        readTransaction.executeWithoutResult(status -> jdbcTemplate.query(SELECT_RATINGS, rs -> {
+            builder.add(rs.getLong(1), rs.getLong(2), rs.getInt(3));
+        }));
+        return builder.build();
+    }
+
+    private Neighbours compute(RatingMatrix matrix, int[] targets) {
+        Neighbours result = new Neighbours(targets.length, neighbours);
+        moviesDone.set(0);
+        moviesToDo = targets.length;
+        if (targets.length == 0) {
+            return result;
+        }
+        // enough leaves per worker to even out the skew between blockbusters and niche titles
+        int leafSize = Math.max(16, targets.length / (parallelism * 8));
+        try (ForkJoinPool pool = new ForkJoinPool(parallelism)) {
+            pool.invoke(new ComputeTask(matrix, targets, result, 0, targets.length, leafSize));
+        }
+        return result;
+    }
+
+    private long write(RatingMatrix matrix, int[] targets, Neighbours result) {
+        long written = 0;
+        for (int from = 0; from < targets.length; from += MOVIES_PER_TRANSACTION) {
+            int to = Math.min(targets.length, from + MOVIES_PER_TRANSACTION);
+            List<Object[]> deletes = new ArrayList<>(to - from);
+            List<Object[]> inserts = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                long movieId = matrix.movieId(targets[i]);
+                deletes.add(new Object[]{movieId});
+                for (int r = 0; r < result.counts[i]; r++) {
+                    int slot = i * neighbours + r;
+                    inserts.add(new Object[]{movieId, (short) (r + 1), matrix.movieId(result.movies[slot]),
+                            result.similarities[slot]});
+                }
+            }
+            // one transaction per chunk: readers see either the old or the new list of a movie
+            writeTransaction.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(DELETE_NEIGHBOURS, deletes);
+                if (!inserts.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_NEIGHBOUR, inserts);
+                }
+            });
+            written += inserts.size();
+        }
+        return written;
+    }
+
+    /** Top-k of every target, target i in slots [i * k, i * k + counts[i]). */
+    private static final class Neighbours {
+        final int[] counts;
+        final int[] movies;
+        final float[] similarities;
+
+        Neighbours(int targets, int k) {
+            counts = new int[targets];
+            movies = new int[targets * k];
+            similarities = new float[targets * k];
+        }
+    }
+
+    private final class ComputeTask extends RecursiveAction {
+        private final RatingMatrix matrix;
+        private final int[] targets;
+        private final Neighbours result;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+
+        ComputeTask(RatingMatrix matrix, int[] targets, Neighbours result, int from, int to, int leafSize) {
+            this.matrix = matrix;
+            this.targets = targets;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > leafSize) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ComputeTask(matrix, targets, result, from, mid, leafSize),
+                        new ComputeTask(matrix, targets, result, mid, to, leafSize));
+                return;
+            }
+            RatingMatrix.Scratch scratch = new RatingMatrix.Scratch(matrix);
+            int[] topMovies = new int[neighbours];
+            float[] topSimilarities = new float[neighbours];
+            for (int i = from; i < to; i++) {
+                int found = matrix.neighbours(targets[i], neighbours, minCommonRaters, scratch,
+                        topMovies, topSimilarities);
+                result.counts[i] = found;
+                System.arraycopy(topMovies, 0, result.movies, i * neighbours, found);
+                System.arraycopy(topSimilarities, 0, result.similarities, i * neighbours, found);
+            }
+            moviesDone.addAndGet(to - from);
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.popcornpicks.service.impl;
+
+import com.popcornpicks.dto.TrendingEntryResponse;
+import com.popcornpicks.events.MovieChangedEvent;
+import com.popcornpicks.events.ReviewCreatedEvent;
+import com.popcornpicks.events.WatchlistItemAddedEvent;
+import com.popcornpicks.repository.MovieRepository;
+import com.popcornpicks.repository.MovieSummary;
+import com.popcornpicks.service.TrendingService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Trending counters in a ring of 168 hourly buckets (one week), each holding the new reviews
+ * and watchlist additions per movie in that hour. Running totals for the last 24 hours and the
+ * last week are kept next to the ring: an event adds to its bucket and to both totals, and when
+ * the clock passes an hour boundary the buckets leaving a window are subtracted from it. A
+ * top-k query is then a bounded heap over the totals of recently active movies.
+ * <p>
+ * Buckets changed since the last checkpoint are written to movie_activity_buckets every
+ * {@code checkpoint-interval-ms} and on shutdown, and the last week is reloaded on startup.
+ */
+@Service
+public class TrendingServiceImpl implements TrendingService {
+
+    private static final Logger log = LoggerFactory.getLogger(TrendingServiceImpl.class);
+
+    private static final int DAY_HOURS = Window.DAY.hours();
+    private static final int WEEK_HOURS = Window.WEEK.hours();
+    private static final long MILLIS_PER_HOUR = 3_600_000L;
+
+    private static final String UPDATE_BUCKET = """
+            update movie_activity_buckets set reviews = ?, watchlist_adds = ?
+            where movie_id = ? and bucket_hour = ?
+            """;
+    private static final String INSERT_BUCKET = """
+            insert into movie_activity_buckets (movie_id, bucket_hour, reviews, watchlist_adds)
+            values (?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MovieRepository movieRepository;
+    private final Clock clock;
+
+    // guarded by this
+    private final Bucket[] ring = new Bucket[WEEK_HOURS];
+    private final Map<Long, Activity> day = new HashMap<>();
+    private final Map<Long, Activity> week = new HashMap<>();
+    private long currentHour = Long.MIN_VALUE;
+
+    @Autowired
+    public TrendingServiceImpl(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               MovieRepository movieRepository) {
+        this(jdbcTemplate, transactionManager, movieRepository, Clock.systemUTC());
+    }
+
+    TrendingServiceImpl(JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager,
+                        MovieRepository movieRepository,
+                        Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // also used from after-commit listeners, where joining the finished transaction would lose the writes
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.movieRepository = movieRepository;
+        this.clock = clock;
+    }
+
+    @Override
+    public List<TrendingEntryResponse> getTrending(Window window, int limit) {
+        Comparator<Ranked> ranking = Comparator.comparingLong(Ranked::score)
+                .thenComparingLong(Ranked::reviews)
+                .thenComparing(Comparator.comparing(Ranked::movieId).reversed());
+        PriorityQueue<Ranked> top = new PriorityQueue<>(ranking);   // weakest on top
+        synchronized (this) {
+            advanceTo(hourNow());
+            for (Map.Entry<Long, Activity> entry : (window == Window.DAY ? day : week).entrySet()) {
+                Activity activity = entry.getValue();
+                top.add(new Ranked(entry.getKey(), activity.reviews, activity.watchlistAdds));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+        List<Ranked> ranked = new ArrayList<>(top);
+        ranked.sort(ranking.reversed());
+
+        // k primary-key lookups; movies deleted since their activity drop out
+        Map<Long, String> titles = movieRepository.findSummariesByIdIn(ranked.stream().map(Ranked::movieId).toList())
+                .stream()
+                .collect(Collectors.toMap(MovieSummary::getId, MovieSummary::getTitle));
+        List<TrendingEntryResponse> entries = new ArrayList<>(ranked.size());
+        for (Ranked entry : ranked) {
+            String title = titles.get(entry.movieId());
+            if (title != null) {
+                entries.add(new TrendingEntryResponse(entries.size() + 1, entry.movieId(), title,
+                        entry.reviews(), entry.watchlistAdds(), entry.score()));
+            }
+        }
+        return entries;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewCreated(ReviewCreatedEvent event) {
+        record(event.movieId(), 1, 0);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWatchlistItemAdded(WatchlistItemAddedEvent event) {
+        record(event.movieId(), 0, 1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        if (event.type() != MovieChangedEvent.Type.DELETED) {
+            return;
+        }
+        synchronized (this) {
+            day.remove(event.movieId());
+            week.remove(event.movieId());
+            for (Bucket bucket : ring) {
+                if (bucket != null) {
+                    bucket.counts.remove(event.movieId());
+                    bucket.dirty.remove(event.movieId());
+                }
+            }
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.update("delete from movie_activity_buckets where movie_id = ?", event.movieId()));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${popcornpicks.trending.checkpoint-interval-ms:60000}")
+    public void checkpoint() {
+        List<BucketRow> changed = new ArrayList<>();
+        long expiredBefore;
+        synchronized (this) {
+            advanceTo(hourNow());
+            for (Bucket bucket : ring) {
+                if (bucket == null) {
+                    continue;
+                }
+                for (Long movieId : bucket.dirty) {
+                    Activity activity = bucket.counts.get(movieId);
+                    changed.add(new BucketRow(movieId, bucket.hour, activity.reviews, activity.watchlistAdds));
+                }
+                bucket.dirty.clear();
+            }
+            expiredBefore = currentHour - WEEK_HOURS + 1;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                write(changed);
+                jdbcTemplate.update("delete from movie_activity_buckets where bucket_hour < ?", expiredBefore);
+            });
+        } catch (RuntimeException ex) {
+            log.warn("Trending checkpoint failed, retrying {} buckets on the next one", changed.size(), ex);
+            synchronized (this) {
+                for (BucketRow row : changed) {
+                    Bucket bucket = ring[slot(row.hour())];
+                    if (bucket != null && bucket.hour == row.hour() && bucket.counts.containsKey(row.movieId())) {
+                        bucket.dirty.add(row.movieId());
+                    }
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void checkpointOnShutdown() {
+        checkpoint();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        long now = hourNow();
+        List<BucketRow> rows = jdbcTemplate.query(
+                "select movie_id, bucket_hour, reviews, watchlist_adds from movie_activity_buckets"
+                        + " where bucket_hour > ? and bucket_hour <= ?",
+                (rs, i) -> new BucketRow(rs.getLong("movie_id"), rs.getLong("bucket_hour"),
+                        rs.getInt("reviews"), rs.getInt("watchlist_adds")),
+                now - WEEK_HOURS, now);
+
+        synchronized (this) {
+            reset(now);
+            for (BucketRow row : rows) {
+                Bucket bucket = bucketFor(row.hour());
+                bucket.counts.computeIfAbsent(row.movieId(), id -> new Activity())
+                        .add(row.reviews(), row.watchlistAdds());
+                week.computeIfAbsent(row.movieId(), id -> new Activity()).add(row.reviews(), row.watchlistAdds());
+                if (row.hour() > now - DAY_HOURS) {
+                    day.computeIfAbsent(row.movieId(), id -> new Activity()).add(row.reviews(), row.watchlistAdds());
+                }
+            }
+        }
+        log.info("Restored {} trending buckets", rows.size());
+    }
+
+    private synchronized void record(Long movieId, int reviews, int watchlistAdds) {
+        advanceTo(hourNow());
+        Bucket bucket = bucketFor(currentHour);
+        bucket.counts.computeIfAbsent(movieId, id -> new Activity()).add(reviews, watchlistAdds);
+        bucket.dirty.add(movieId);
+        day.computeIfAbsent(movieId, id -> new Activity()).add(reviews, watchlistAdds);
+        week.computeIfAbsent(movieId, id -> new Activity()).add(reviews, watchlistAdds);
+    }
+
+    /** Moves the windows forward hour by hour, subtracting the buckets that fall out of each. */
+    private void advanceTo(long hour) {
+        if (currentHour == Long.MIN_VALUE || hour - currentHour >= WEEK_HOURS) {
+            reset(hour);
+            return;
+        }
+        while (currentHour < hour) {
+            currentHour++;
+            Bucket leavingDay = ring[slot(currentHour - DAY_HOURS)];
+            if (leavingDay != null && leavingDay.hour == currentHour - DAY_HOURS) {
+                subtract(day, leavingDay);
+            }
+            Bucket leavingWeek = ring[slot(currentHour)];
+            if (leavingWeek != null) {
+                subtract(week, leavingWeek);
+                ring[slot(currentHour)] = null;
+            }
+        }
+    }
+
+    private void reset(long hour) {
+        Arrays.fill(ring, null);
+        day.clear();
+        week.clear();
+        currentHour = hour;
+    }
+
+    private Bucket bucketFor(long hour) {
+        Bucket bucket = ring[slot(hour)];
+        if (bucket == null) {
+            bucket = new Bucket(hour);
+            ring[slot(hour)] = bucket;
+        }
+        return bucket;
+    }
+
+    private static void subtract(Map<Long, Activity> totals, Bucket bucket) {
+        bucket.counts.forEach((movieId, activity) -> {
+            Activity total = totals.get(movieId);
+            if (total != null && total.add(-activity.reviews, -activity.watchlistAdds).isEmpty()) {
+                totals.remove(movieId);
+            }
+        });
+    }
+
+    private void write(List<BucketRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        // update first, insert what did not exist yet: portable, unlike the various upserts
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_BUCKET, rows.stream()
+                .map(row -> new Object[]{row.reviews(), row.watchlistAdds(), row.movieId(), row.hour()})
+                .toList());
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (updated[i] == 0) {
+                BucketRow row = rows.get(i);
+                inserts.add(new Object[]{row.movieId(), row.hour(), row.reviews(), row.watchlistAdds()});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_BUCKET, inserts);
+        }
+    }
+
+    private long hourNow() {
+        return Math.floorDiv(clock.millis(), MILLIS_PER_HOUR);
+    }
+
+    private static int slot(long hour) {
+        return Math.floorMod(hour, WEEK_HOURS);
+    }
+
+    private static final class Bucket {
+        final long hour;
+        final Map<Long, Activity> counts = new HashMap<>();
+        final Set<Long> dirty = new HashSet<>();     // changed since the last checkpoint
+
+        Bucket(long hour) {
+            this.hour = hour;
+        }
+    }
+
+    private static final class Activity {
+        int reviews;
+        int watchlistAdds;
+
+        Activity add(int reviews, int watchlistAdds) {
+            this.reviews += reviews;
+            this.watchlistAdds += watchlistAdds;
+            return this;
+        }
+
+        boolean isEmpty() {
+            return reviews == 0 && watchlistAdds == 0;
+        }
+    }
+
+    private record Ranked(Long movieId, long reviews, long watchlistAdds) {
+        long score() {
+            return reviews + watchlistAdds;
+        }
+    }
+
+    private record BucketRow(Long movieId, long hour, int reviews, int watchlistAdds) { }
+}
@@ -0,0 +1,348 @@
+package com.popcornpicks.service.impl;
+
+import com.popcornpicks.dto.SuggestionResponse;
+import com.popcornpicks.events.MovieChangedEvent;
+import com.popcornpicks.events.RatingChangedEvent;
+import com.popcornpicks.events.RatingsRecomputedEvent;
+import com.popcornpicks.repository.MovieRepository;
+import com.popcornpicks.repository.MovieSummary;
+import com.popcornpicks.service.SuggestionService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Autocomplete over a case-folded prefix trie. Every title is inserted once per word, from that
+ * word to the end of the title, so "matr" finds "The Matrix". Each node keeps its best
+ * {@code top-k} entries, which makes a lookup a walk of at most {@code max-depth} nodes with no
+ * sorting. Memory stays bounded by capping the depth: keys are only branched on their first
+ * {@code max-depth} characters, the rest of a key is kept on the node where it stops and is
+ * filtered when a query is longer than the cap.
+ * <p>
+ * Entries are ranked by review count, then average rating. New or better-ranked entries are
+ * offered to each node on their path; when one drops or leaves, the nodes on its path are
+ * recomputed bottom-up from their children's lists, which is exact because a node's best
+ * entries are always among its children's best and its own.
+ */
+@Service
+public class TrieSuggestionService implements SuggestionService {
+
+    private static final int RELOAD_CHUNK_SIZE = 1000;
+
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingLong(Entry::ratingCount).reversed()
+            .thenComparing(Comparator.comparingDouble(Entry::averageRating).reversed())
+            .thenComparing(Entry::title)
+            .thenComparing(Entry::movieId);
+
+    private final MovieRepository movieRepository;
+    private final int maxDepth;
+    private final int topK;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node();                      // guarded by lock
+    private final Map<Long, Movie> movies = new HashMap<>();    // guarded by lock
+
+    public TrieSuggestionService(
+            MovieRepository movieRepository,
+            @Value("${popcornpicks.suggest.max-depth:12}") int maxDepth,
+            @Value("${popcornpicks.suggest.top-k:10}") int topK
+    ) {
+        this.movieRepository = movieRepository;
+        this.maxDepth = maxDepth;
+        this.topK = topK;
+    }
+
+    @Override
+    public List<SuggestionResponse> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        int max = Math.min(limit, topK);
+
+        List<Entry> matches;
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < Math.min(prefix.length(), maxDepth) && node != null; i++) {
+                node = node.child(prefix.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+            matches = prefix.length() <= maxDepth
+                    ? Arrays.asList(node.top)
+                    // past the depth cap every candidate is in this node's own list
+                    : node.entries.stream()
+                            .filter(entry -> entry.key().startsWith(prefix))
+                            .sorted(RANKING)
+                            .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<Long, SuggestionResponse> suggestions = new LinkedHashMap<>();
+        for (Entry entry : matches) {
+            if (suggestions.size() == max) {
+                break;
+            }
+            suggestions.putIfAbsent(entry.movieId(), new SuggestionResponse(entry.movieId(), entry.title()));
+        }
+        return new ArrayList<>(suggestions.values());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<MovieSummary> summaries = movieRepository.findAllSummaries();
+        lock.writeLock().lock();
+        try {
+            for (Long movieId : new ArrayList<>(movies.keySet())) {
+                remove(movieId);
+            }
+            for (MovieSummary summary : summaries) {
+                put(new Movie(summary.getId(), summary.getTitle(), summary.getRatingSum(), summary.getRatingCount()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            Movie previous = remove(event.movieId());
+            if (event.type() != MovieChangedEvent.Type.DELETED) {
+                // the snapshot may predate a concurrent rating update, so keep the counts we track
+                long ratingSum = previous == null ? event.ratingSum() : previous.ratingSum();
+                long ratingCount = previous == null ? event.ratingCount() : previous.ratingCount();
+                put(new Movie(event.movieId(), event.title(), ratingSum, ratingCount));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatingChanged(RatingChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            Movie previous = remove(event.movieId());
+            if (previous != null) {
+                put(new Movie(previous.id(), previous.title(),
+                        previous.ratingSum() + event.delta().sum(),
+                        previous.ratingCount() + event.delta().count()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatingsRecomputed(RatingsRecomputedEvent event) {
+        if (event.isAll()) {
+            rebuild();
+            return;
+        }
+        List<Long> ids = new ArrayList<>(event.movieIds());
+        for (int from = 0; from < ids.size(); from += RELOAD_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + RELOAD_CHUNK_SIZE, ids.size()));
+            List<MovieSummary> summaries = movieRepository.findSummariesByIdIn(chunk);
+            lock.writeLock().lock();
+            try {
+                Set<Long> missing = new HashSet<>(chunk);
+                for (MovieSummary summary : summaries) {
+                    missing.remove(summary.getId());
+                    remove(summary.getId());
+                    put(new Movie(summary.getId(), summary.getTitle(), summary.getRatingSum(), summary.getRatingCount()));
+                }
+                missing.forEach(this::remove);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void put(Movie movie) {
+        movies.put(movie.id(), movie);
+        for (Entry entry : entries(movie)) {
+            Node node = root;
+            node.offer(entry, topK);
+            for (int i = 0; i < Math.min(entry.key().length(), maxDepth); i++) {
+                node = node.childOrCreate(entry.key().charAt(i));
+                node.offer(entry, topK);
+            }
+            node.entries.add(entry);
+        }
+    }
+
+    private Movie remove(Long movieId) {
+        Movie movie = movies.remove(movieId);
+        if (movie == null) {
+            return null;
+        }
+        for (Entry entry : entries(movie)) {
+            int depth = Math.min(entry.key().length(), maxDepth);
+            Node[] path = new Node[depth + 1];
+            path[0] = root;
+            for (int i = 0; i < depth; i++) {
+                path[i + 1] = path[i].child(entry.key().charAt(i));
+            }
+            path[depth].entries.remove(entry);
+
+            for (int i = depth; i >= 0; i--) {
+                Node node = path[i];
+                if (i > 0 && node.isEmpty()) {
+                    path[i - 1].removeChild(entry.key().charAt(i - 1));
+                } else if (node.topContains(entry)) {
+                    node.recompute(topK);
+                } else {
+                    break;  // not among this node's best, so not among any ancestor's either
+                }
+            }
+        }
+        return movie;
+    }
+
+    private static List<Entry> entries(Movie movie) {
+        String key = normalize(movie.title());
+        double average = movie.ratingCount() == 0 ? 0.0 : (double) movie.ratingSum() / movie.ratingCount();
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < key.length(); i++) {
+            if (i == 0 || key.charAt(i - 1) == ' ') {
+                entries.add(new Entry(movie.id(), movie.title(), key.substring(i), movie.ratingCount(), average));
+            }
+        }
+        return entries;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = ACCENTS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private record Movie(Long id, String title, long ratingSum, long ratingCount) {
+    }
+
+    private record Entry(Long movieId, String title, String key, long ratingCount, double averageRating) {
+    }
+
+    private static final class Node {
+        private static final Entry[] NONE = new Entry[0];
+
+        private char[] labels = new char[0];        // sorted, parallel to children
+        private Node[] children = new Node[0];
+        private Entry[] top = NONE;                 // best entries of this subtree, best first
+        private final List<Entry> entries = new ArrayList<>(1);   // keys ending (or capped) here
+
+        Node child(char label) {
+            int i = Arrays.binarySearch(labels, label);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node childOrCreate(char label) {
+            int i = Arrays.binarySearch(labels, label);
+            if (i >= 0) {
+                return children[i];
+            }
+            int at = -i - 1;
+            Node child = new Node();
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            newLabels[at] = label;
+            newChildren[at] = child;
+            System.arraycopy(labels, at, newLabels, at + 1, labels.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            labels = newLabels;
+            children = newChildren;
+            return child;
+        }
+
+        void removeChild(char label) {
+            int i = Arrays.binarySearch(labels, label);
+            if (i < 0) {
+                return;
+            }
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, i);
+            System.arraycopy(children, 0, newChildren, 0, i);
+            System.arraycopy(labels, i + 1, newLabels, i, labels.length - i - 1);
+            System.arraycopy(children, i + 1, newChildren, i, children.length - i - 1);
+            labels = newLabels;
+            children = newChildren;
+        }
+
+        boolean isEmpty() {
+            return children.length == 0 && entries.isEmpty();
+        }
+
+        boolean topContains(Entry entry) {
+            for (Entry candidate : top) {
+                if (candidate.equals(entry)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void offer(Entry entry, int topK) {
+            int at = Arrays.binarySearch(top, entry, RANKING);
+            if (at >= 0) {
+                return;     // the same movie under another of its words
+            }
+            at = -at - 1;
+            if (at >= topK) {
+                return;
+            }
+            int length = Math.min(top.length + 1, topK);
+            Entry[] updated = new Entry[length];
+            System.arraycopy(top, 0, updated, 0, at);
+            updated[at] = entry;
+            System.arraycopy(top, at, updated, at + 1, length - at - 1);
+            top = updated;
+        }
+
+        void recompute(int topK) {
+            List<Entry> candidates = new ArrayList<>(entries);
+            for (Node child : children) {
+                candidates.addAll(Arrays.asList(child.top));
+            }
+            candidates.sort(RANKING);
+            List<Entry> best = new ArrayList<>(topK);
+            Set<Long> seen = new HashSet<>();
+            for (int i = 0; i < candidates.size() && best.size() < topK; i++) {
+                if (seen.add(candidates.get(i).movieId())) {
+                    best.add(candidates.get(i));
+                }
+            }
+            top = best.toArray(NONE);
+        }
+    }
+}
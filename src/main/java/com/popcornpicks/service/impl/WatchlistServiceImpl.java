@@ -1,48 +1,112 @@
 package com.popcornpicks.service.impl;
 
-import com.popcornpicks.models.Movie;
-import com.popcornpicks.models.User;
-import com.popcornpicks.models.WatchlistItem;
-import com.popcornpicks.repository.MovieRepository;
+import com.popcornpicks.dto.WatchlistBulkResponse;
+import com.popcornpicks.dto.WatchlistBulkResult;
+import com.popcornpicks.dto.WatchlistResponse;
+import com.popcornpicks.events.WatchlistItemAddedEvent;
 import com.popcornpicks.repository.UserRepository;
 import com.popcornpicks.repository.WatchlistRepository;
 import com.popcornpicks.service.WatchlistService;
 import com.popcornpicks.exceptions.ResourceNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
 @Service
 @Transactional
 public class WatchlistServiceImpl implements WatchlistService {
 
+    static final String ADDED = "ADDED";
+    static final String ALREADY_ON_WATCHLIST = "ALREADY_ON_WATCHLIST";
+    static final String MOVIE_NOT_FOUND = "MOVIE_NOT_FOUND";
+    static final String REMOVED = "REMOVED";
+    static final String NOT_ON_WATCHLIST = "NOT_ON_WATCHLIST";
+
+    // which of the ids are movies, and which of those the user already has
+    private static final String SELECT_MOVIES_AND_ITEMS = """
+            select m.id, w.id as item_id
+            from movies m
+            left join watchlist_items w on w.movie_id = m.id and w.user_id = :userId
+            where m.id in (:movieIds)
+            """;
+
+    // an item that is already there (or added concurrently) is skipped, not a constraint error
+    private static final String INSERT_ITEM = """
+            insert into watchlist_items (user_id, movie_id, added_at)
+            values (?, ?, ?)
+            on conflict do nothing
+            """;
+
     private final WatchlistRepository watchlistRepo;
     private final UserRepository userRepo;
-    private final MovieRepository movieRepo;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final ConflictSkippingInsert insertItems;
 
     @Autowired
     public WatchlistServiceImpl(
             WatchlistRepository watchlistRepo,
             UserRepository userRepo,
-            MovieRepository movieRepo
+            ApplicationEventPublisher eventPublisher,
+            JdbcTemplate jdbcTemplate,
+            NamedParameterJdbcTemplate namedJdbcTemplate
     ) {
-        this.watchlistRepo = watchlistRepo;
-        this.userRepo     = userRepo;
-        this.movieRepo    = movieRepo;
+        this.watchlistRepo     = watchlistRepo;
+        this.userRepo          = userRepo;
+        this.eventPublisher    = eventPublisher;
+        this.jdbcTemplate      = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.insertItems = new ConflictSkippingInsert(jdbcTemplate.getDataSource(), "watchlist_items",
+                List.of("user_id", "movie_id", "added_at"), "movie_id");
     }
 
     @Override
-    public WatchlistItem addToWatchlist(Long userId, Long movieId) {
-        User user = userRepo.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
-        Movie movie = movieRepo.findById(movieId)
+    public AddResult addToWatchlist(Long userId, Long movieId) {
+        // no lookups: the foreign keys reject unknown ids in the same round trip as the insert,
+        // and an existing item is left alone instead of failing on uk_user_movie_watchlist
+        int inserted;
+        try {
+            inserted = jdbcTemplate.update(INSERT_ITEM, userId, movieId, Timestamp.valueOf(LocalDateTime.now()));
+        } catch (DataIntegrityViolationException ex) {
+            throw translateInsertFailure(ex, userId, movieId);
+        }
+        if (inserted > 0) {
+            eventPublisher.publishEvent(new WatchlistItemAddedEvent(userId, movieId));
+        }
+        WatchlistResponse item = watchlistRepo.findResponseByUserIdAndMovieId(userId, movieId)
                 .orElseThrow(() -> new ResourceNotFoundException("Movie not found: " + movieId));
+        return new AddResult(item, inserted > 0);
+    }
 
-
-        return watchlistRepo.findByUserIdAndMovieId(userId, movieId)
-                .orElseGet(() -> watchlistRepo.save(new WatchlistItem(user, movie)));
+    private RuntimeException translateInsertFailure(DataIntegrityViolationException ex, Long userId, Long movieId) {
+        String message = String.valueOf(ex.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        if (message.contains("fk_watchlist_user")) {
+            return new ResourceNotFoundException("User not found: " + userId);
+        }
+        if (message.contains("fk_watchlist_movie")) {
+            return new ResourceNotFoundException("Movie not found: " + movieId);
+        }
+        return ex;
     }
 
     @Override
@@ -51,12 +115,83 @@ public class WatchlistServiceImpl implements WatchlistService {
         watchlistRepo.deleteByUserIdAndMovieId(userId, movieId);
     }
 
+    @Override
+    public WatchlistBulkResponse bulkUpdate(Long userId, List<Long> add, List<Long> remove) {
+        if (!userRepo.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found: " + userId);
+        }
+        // a movie listed twice is handled, and reported, once
+        Set<Long> toAdd = new LinkedHashSet<>(add);
+        Set<Long> toRemove = new LinkedHashSet<>(remove);
+        WatchlistBulkResponse response = new WatchlistBulkResponse();
+        if (toAdd.isEmpty() && toRemove.isEmpty()) {
+            return response;
+        }
+
+        Set<Long> requested = new LinkedHashSet<>(toAdd);
+        requested.addAll(toRemove);
+        Map<Long, Boolean> onWatchlist = new HashMap<>();
+        namedJdbcTemplate.query(SELECT_MOVIES_AND_ITEMS,
+                new MapSqlParameterSource("userId", userId).addValue("movieIds", requested),
+                rs -> {
+                    onWatchlist.put(rs.getLong("id"), rs.getObject("item_id") != null);
+                });
+
+        // the lookup only picks the candidates: a concurrent add of the same movie wins the
+        // conflict, so whether this request added it is decided by the rows the insert returns
+        Set<Long> inserted = new HashSet<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = toAdd.stream()
+                .filter(movieId -> Boolean.FALSE.equals(onWatchlist.get(movieId)))
+                .map(movieId -> new Object[]{userId, movieId, now})
+                .toList();
+        if (!rows.isEmpty()) {
+            inserted.addAll(insertItems.insert(jdbcTemplate, rows, (rs, rowNum) -> rs.getLong("movie_id")));
+        }
+        for (Long movieId : toAdd) {
+            if (!onWatchlist.containsKey(movieId)) {
+                response.getResults().add(new WatchlistBulkResult(movieId, MOVIE_NOT_FOUND));
+            } else if (inserted.contains(movieId)) {
+                response.getResults().add(new WatchlistBulkResult(movieId, ADDED));
+                eventPublisher.publishEvent(new WatchlistItemAddedEvent(userId, movieId));
+            } else {
+                response.getResults().add(new WatchlistBulkResult(movieId, ALREADY_ON_WATCHLIST));
+            }
+        }
+        response.setAdded(inserted.size());
+
+        List<Long> deletes = new ArrayList<>();
+        for (Long movieId : toRemove) {
+            if (Boolean.TRUE.equals(onWatchlist.get(movieId))) {
+                response.getResults().add(new WatchlistBulkResult(movieId, REMOVED));
+                deletes.add(movieId);
+            } else {
+                response.getResults().add(new WatchlistBulkResult(movieId, NOT_ON_WATCHLIST));
+            }
+        }
+        if (!deletes.isEmpty()) {
+            namedJdbcTemplate.update("delete from watchlist_items where user_id = :userId and movie_id in (:movieIds)",
+                    new MapSqlParameterSource("userId", userId).addValue("movieIds", deletes));
+            response.setRemoved(deletes.size());
+        }
+        return response;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<WatchlistResponse> getWatchlist(Long userId, Pageable pageable) {
+        if (!userRepo.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found: " + userId);
+        }
+        return watchlistRepo.findResponsesByUserId(userId, pageable);
+    }
+
     @Override
     @Transactional(readOnly = true)
-    public Page<WatchlistItem> getWatchlist(Long userId, Pageable pageable) {
+    public Slice<WatchlistResponse> getWatchlistSlice(Long userId, Pageable pageable) {
         if (!userRepo.existsById(userId)) {
             throw new ResourceNotFoundException("User not found: " + userId);
         }
-        return watchlistRepo.findByUserId(userId, pageable);
+        return watchlistRepo.findResponseSliceByUserId(userId, pageable);
     }
 }
@@ -0,0 +1,139 @@
+package com.popcornpicks.service.impl;
+
+import com.popcornpicks.events.RatingChangedEvent;
+import com.popcornpicks.models.RatingDelta;
+import com.popcornpicks.repository.MovieRepository;
+import com.popcornpicks.service.RatingAggregator;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Queues rating deltas in memory and applies them in the background, one coalesced
+ * UPDATE per movie per flush. Review writes for a popular movie therefore no longer
+ * serialize on its row; in exchange the aggregates lag by at most one flush interval.
+ * <p>
+ * Deltas are only queued once the review transaction has committed, and a full queue
+ * makes the writing thread flush before it continues, so memory use stays bounded.
+ * Deltas from a flush that fails are kept, already coalesced, and retried by the next one.
+ */
+@Service
+@ConditionalOnProperty(name = "popcornpicks.ratings.aggregation.mode", havingValue = "write-behind")
+public class WriteBehindRatingAggregator implements RatingAggregator {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindRatingAggregator.class);
+
+    private final MovieRepository movieRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<PendingDelta> queue;
+    private final Timer flushTimer;
+
+    // guarded by this: coalesced deltas of a failed flush, at most one per movie
+    private final Map<Long, RatingDelta> unapplied = new TreeMap<>();
+
+    public WriteBehindRatingAggregator(
+            MovieRepository movieRepository,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${popcornpicks.ratings.aggregation.queue-capacity:100000}") int queueCapacity
+    ) {
+        this.movieRepository = movieRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+
+        Gauge.builder("ratings.aggregation.queue.depth", queue, BlockingQueue::size)
+                .description("Rating deltas waiting to be applied")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("ratings.aggregation.flush")
+                .description("Time spent applying one batch of coalesced rating deltas")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void record(Long movieId, RatingDelta delta) {
+        PendingDelta pending = new PendingDelta(movieId, delta);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(pending);
+                }
+            });
+        } else {
+            enqueue(pending);
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${popcornpicks.ratings.aggregation.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        List<PendingDelta> drained = new ArrayList<>();
+        queue.drainTo(drained);
+        if (drained.isEmpty() && unapplied.isEmpty()) {
+            return;
+        }
+
+        // sorted by movie id so concurrent flushers always lock rows in the same order
+        Map<Long, RatingDelta> coalesced = new TreeMap<>(unapplied);
+        unapplied.clear();
+        for (PendingDelta pending : drained) {
+            coalesced.merge(pending.movieId(), pending.delta(), RatingDelta::plus);
+        }
+
+        try {
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(status ->
+                    coalesced.forEach((movieId, delta) -> {
+                        if (delta.isEmpty()) {
+                            return;
+                        }
+                        if (movieRepository.applyRatingDelta(movieId, delta) == 0) {
+                            log.warn("Dropping rating delta for movie {} which no longer exists", movieId);
+                            return;
+                        }
+                        eventPublisher.publishEvent(new RatingChangedEvent(movieId, delta));
+                    })
+            ));
+        } catch (RuntimeException ex) {
+            // the transaction rolled back as a whole, so every delta is retried
+            log.warn("Rating flush failed, retrying {} movies on the next one", coalesced.size(), ex);
+            unapplied.putAll(coalesced);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void enqueue(PendingDelta pending) {
+        while (!queue.offer(pending)) {
+            flush();
+        }
+    }
+
+    private record PendingDelta(Long movieId, RatingDelta delta) { }
+}
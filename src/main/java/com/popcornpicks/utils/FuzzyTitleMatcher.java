@@ -0,0 +1,132 @@
+package com.popcornpicks.utils;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Typo-tolerant token matching shared by the fuzzy title search of both search engines.
+ * Candidates come from a trigram index; this class verifies them with an edit distance
+ * bounded by the query token's length, so only a few candidate tokens are ever compared.
+ * Works on the lowercase tokens produced by {@link TitleTokenizer}.
+ */
+public final class FuzzyTitleMatcher {
+
+    /** Points for a query token that equals a title token; lower tiers below. */
+    public static final int EXACT = 4;
+    public static final int PREFIX = 3;
+
+    private FuzzyTitleMatcher() { }
+
+    /**
+     * Typos tolerated in a query token: none up to 3 characters, where one edit turns most
+     * words into other words, one up to 5, and two beyond that.
+     */
+    public static int maxEdits(String token) {
+        int length = token.length();
+        return length <= 3 ? 0 : length <= 5 ? 1 : 2;
+    }
+
+    /**
+     * The token's trigrams, padded with two spaces on each side so that short tokens still
+     * have several and the first and last characters count as much as the others.
+     */
+    public static Set<String> trigrams(String token) {
+        String padded = "  " + token + "  ";
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * Fewest trigrams two tokens of these lengths must share to be within {@code edits} of each
+     * other: one edit changes at most four trigrams (a transposition touches two letters).
+     */
+    public static int minSharedTrigrams(int queryLength, int tokenLength, int edits) {
+        return Math.max(1, Math.max(queryLength, tokenLength) + 2 - 4 * edits);
+    }
+
+    /**
+     * Points for how well a title token matches a query token: {@link #EXACT}, {@link #PREFIX},
+     * 2 for one edit, 1 for two, and 0 for no match.
+     */
+    public static int points(String queryToken, String titleToken) {
+        if (titleToken.equals(queryToken)) {
+            return EXACT;
+        }
+        if (titleToken.startsWith(queryToken)) {
+            return PREFIX;
+        }
+        int maxEdits = maxEdits(queryToken);
+        int distance = distance(queryToken, titleToken, maxEdits);
+        return distance <= maxEdits ? PREFIX - distance : 0;
+    }
+
+    /**
+     * Sum of the best points of every query token against the title's tokens, or 0 unless
+     * every query token matches something.
+     */
+    public static int score(List<String> queryTokens, List<String> titleTokens) {
+        int score = 0;
+        for (String queryToken : queryTokens) {
+            int best = 0;
+            for (String titleToken : titleTokens) {
+                best = Math.max(best, points(queryToken, titleToken));
+            }
+            if (best == 0) {
+                return 0;
+            }
+            score += best;
+        }
+        return score;
+    }
+
+    /**
+     * Edit distance between the two strings, counting a swap of adjacent characters as one edit
+     * (optimal string alignment), or {@code max + 1} as soon as it is known to exceed {@code max}.
+     * Only a band of 2 * max + 1 cells per row is filled in.
+     */
+    public static int distance(CharSequence a, CharSequence b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] beforePrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            int from = Math.max(1, i - max);
+            int to = Math.min(b.length(), i + max);
+            current[0] = i;
+            if (from > 1) {
+                current[from - 1] = max + 1;
+            }
+            int rowMin = from == 1 ? i : max + 1;
+            for (int j = from; j <= to; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(previous[j - 1] + cost, current[j - 1] + 1);
+                // the previous row's band ends one cell to the left
+                if (j < i + max) {
+                    value = Math.min(value, previous[j] + 1);
+                }
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, beforePrevious[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+}
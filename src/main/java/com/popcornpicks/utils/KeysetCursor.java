@@ -0,0 +1,38 @@
+package com.popcornpicks.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a listing ordered by (created_at, id), handed to clients as an opaque token.
+ */
+public record KeysetCursor(LocalDateTime createdAt, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException when the token was not produced by {@link #encode()}
+     */
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int split = raw.lastIndexOf(SEPARATOR);
+            if (split < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new KeysetCursor(
+                    LocalDateTime.parse(raw.substring(0, split)),
+                    Long.parseLong(raw.substring(split + 1))
+            );
+        } catch (DateTimeParseException | IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, ex);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.popcornpicks.utils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Splits titles and search queries into lowercase word tokens. Anything that is not a letter
+ * or a digit separates words, so the tokens are also safe to embed in a Postgres tsquery.
+ */
+public final class TitleTokenizer {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private TitleTokenizer() { }
+
+    public static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        return Arrays.stream(SEPARATORS.split(text.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toList();
+    }
+}
@@ -0,0 +1,7 @@
+-- title search (popcornpicks.search.engine=postgres): trigram similarity plus token prefix matching
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_movies_title_trgm ON movies USING gin (title gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_movies_title_tsv ON movies USING gin (to_tsvector('simple', title));
+
+-- combined movie filter (MovieService.search): per-word lower(title) LIKE '%word%'
+CREATE INDEX IF NOT EXISTS idx_movies_title_lower_trgm ON movies USING gin (lower(title) gin_trgm_ops);
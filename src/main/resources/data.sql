@@ -1,11 +1,18 @@
 -- ==============================================
 -- 1) Movies
+--    (rating aggregates and star counts match the reviews seeded in section 6)
 -- ==============================================
-INSERT INTO movies (title, year, poster_path, average_rating) VALUES
-                                                                  ('Inception',       2010, '/uploads/inception.jpg',    0.0),
-                                                                  ('The Godfather',   1972, '/uploads/godfather.jpg',    0.0),
-                                                                  ('Parasite',        2019, '/uploads/parasite.jpg',     0.0),
-                                                                  ('Genreless Movie', 2021, '/uploads/genreless.jpg',    0.0);
+INSERT INTO movies (id, title, year, poster_path, average_rating, rating_sum, rating_count,
+                    one_star_count, two_star_count, three_star_count, four_star_count, five_star_count,
+                    version, updated_at) VALUES
+                                                                  (1, 'Inception',       2010, '/uploads/inception.jpg',    5.0, 5, 1, 0, 0, 0, 0, 1, 0, CURRENT_TIMESTAMP),
+                                                                  (2, 'The Godfather',   1972, '/uploads/godfather.jpg',    4.0, 4, 1, 0, 0, 0, 1, 0, 0, CURRENT_TIMESTAMP),
+                                                                  (3, 'Parasite',        2019, '/uploads/parasite.jpg',     3.0, 3, 1, 0, 0, 1, 0, 0, 0, CURRENT_TIMESTAMP),
+                                                                  (4, 'Genreless Movie', 2021, '/uploads/genreless.jpg',    0.0, 0, 0, 0, 0, 0, 0, 0, 0, CURRENT_TIMESTAMP);
+
+-- ids come from pooled sequences: the first nextval is the top of a block of allocationSize ids,
+-- so restart at (highest seeded id + allocationSize) for the application to continue at id 5
+ALTER SEQUENCE movies_seq RESTART WITH 1004;
 
 -- ==============================================
 -- 2) Genres
@@ -25,10 +32,12 @@ INSERT INTO movie_genres (movie_id, genre) VALUES
 --     bob@example.com   → password
 --     admin@example.com → adminpass)
 -- ==============================================
-INSERT INTO users (email, password) VALUES
-                                        ('alice@example.com', '$2b$12$G1aCua8AGhtWmu6SuRWYsOON2rtwW7RFy2oMe7hy7k4L5YMrbQCF.'),
-                                        ('bob@example.com',   '$2b$12$HD0U/3GqMdIWU4kPluVQZOzXFGIMVi4155qhvKJHqRUyLh3AL45Xe'),
-                                        ('admin@example.com', '$2b$12$j/IzWPOhAsgCrFwwu.sbMupUPu5TWO2SOEpSuYPeTipVPBqjtfid.');
+INSERT INTO users (id, email, password) VALUES
+                                        (1, 'alice@example.com', '$2b$12$G1aCua8AGhtWmu6SuRWYsOON2rtwW7RFy2oMe7hy7k4L5YMrbQCF.'),
+                                        (2, 'bob@example.com',   '$2b$12$HD0U/3GqMdIWU4kPluVQZOzXFGIMVi4155qhvKJHqRUyLh3AL45Xe'),
+                                        (3, 'admin@example.com', '$2b$12$j/IzWPOhAsgCrFwwu.sbMupUPu5TWO2SOEpSuYPeTipVPBqjtfid.');
+
+ALTER SEQUENCE users_seq RESTART WITH 53;
 
 -- ==============================================
 -- 4) Roles
@@ -0,0 +1,352 @@
+package com.popcornpicks.controller;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.jayway.jsonpath.JsonPath;
+import com.popcornpicks.models.Movie;
+import com.popcornpicks.models.User;
+import com.popcornpicks.repository.MovieRepository;
+import com.popcornpicks.repository.ReviewRepository;
+import com.popcornpicks.repository.UserRepository;
+import com.popcornpicks.repository.WatchlistRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+class AdminControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WatchlistRepository watchlistRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long movieId;
+    private Long aliceId;
+    private Long bobId;
+
+    @BeforeEach
+    void setUp() {
+        watchlistRepository.deleteAll();
+        reviewRepository.deleteAll();
+        movieRepository.deleteAll();
+        userRepository.deleteAll();
+
+        aliceId = userRepository.save(new User("alice@example.com", "password", null)).getId();
+        bobId = userRepository.save(new User("bob@example.com", "password", null)).getId();
+
+        Movie movie = new Movie("Imported Movie", 2020, "imported.jpg", List.of("Drama"));
+        movieId = movieRepository.save(movie).getId();
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testImportReviews_ReportsDuplicatesAndRecomputesRating() throws Exception {
+        String ndjson = String.join("\n",
+                "{\"userId\": %d, \"movieId\": %d, \"rating\": 5, \"comment\": \"Loved it\"}".formatted(aliceId, movieId),
+                "{\"userId\": %d, \"movieId\": %d, \"rating\": 2, \"comment\": \"Meh\"}".formatted(bobId, movieId),
+                "{\"userId\": %d, \"movieId\": %d, \"rating\": 1, \"comment\": \"Again\"}".formatted(aliceId, movieId),
+                "{\"userId\": 999999, \"movieId\": %d, \"rating\": 3}".formatted(movieId),
+                "{\"userId\": %d, \"movieId\": %d, \"rating\": 9}".formatted(bobId, movieId),
+                "not json"
+        );
+
+        mockMvc.perform(post("/api/v1/admin/reviews:import")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(6))
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.duplicates").value(1))
+                .andExpect(jsonPath("$.rejected").value(3))
+                .andExpect(jsonPath("$.issues[?(@.line == 3)].status").value("DUPLICATE"));
+
+        Movie movie = movieRepository.findById(movieId).orElseThrow();
+        assertEquals(2, movie.getRatingCount());
+        assertEquals(3.5, movie.getAverageRating());
+        assertEquals(1, movie.getFiveStarCount());
+        assertEquals(1, movie.getTwoStarCount());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testImportReviews_ExistingReviewIsADuplicateAndLeavesTheRatingAlone() throws Exception {
+        mockMvc.perform(post("/api/v1/admin/reviews:import")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"userId\": %d, \"movieId\": %d, \"rating\": 4, \"comment\": \"Good\"}"
+                                .formatted(aliceId, movieId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+
+        mockMvc.perform(post("/api/v1/admin/reviews:import")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(String.join("\n",
+                                "{\"userId\": %d, \"movieId\": %d, \"rating\": 1, \"comment\": \"Changed my mind\"}"
+                                        .formatted(aliceId, movieId),
+                                "{\"userId\": %d, \"movieId\": %d, \"rating\": 2, \"comment\": \"Meh\"}"
+                                        .formatted(bobId, movieId))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.duplicates").value(1))
+                .andExpect(jsonPath("$.issues[0].line").value(1))
+                .andExpect(jsonPath("$.issues[0].status").value("DUPLICATE"));
+
+        Movie movie = movieRepository.findById(movieId).orElseThrow();
+        assertEquals(2, movie.getRatingCount());
+        assertEquals(3.0, movie.getAverageRating());
+        assertEquals(2, reviewRepository.count());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testImportReviews_AsUser_Returns403() throws Exception {
+        mockMvc.perform(post("/api/v1/admin/reviews:import")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{}"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testImportMovies_InsertsInJdbcBatches() throws Exception {
+        int movies = 500;
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < movies; i++) {
+            ndjson.append("{\"title\": \"Bulk Movie %d\", \"year\": 2000, \"posterPath\": \"bulk.jpg\", \"genres\": [\"Drama\", \"Comedy\"]}\n".formatted(i));
+        }
+        ndjson.append("{\"title\": \"\", \"year\": 2000, \"posterPath\": \"bulk.jpg\", \"genres\": []}\n");
+        ndjson.append("not json\n");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(post("/api/v1/admin/movies:import")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(movies + 2))
+                .andExpect(jsonPath("$.imported").value(movies))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.issues[0].line").value(movies + 1))
+                .andExpect(jsonPath("$.issues[0].reason").value("title is required"));
+
+        // one batched movie insert and one batched genre insert; the ids come from the
+        // sequence block already reserved by setUp
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(movies + 1, movieRepository.count());
+        assertEquals(2L * movies + 1, movieRepository.findAllGenres().size());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testExportMovies_StreamsOneLinePerMovieWithGenres() throws Exception {
+        Long comedyId = movieRepository.save(new Movie("Comedy Night", 2021, "comedy.jpg", List.of("Comedy", "Romance"))).getId();
+        Long bareId = movieRepository.save(new Movie("No Genres", 2022, "bare.jpg", List.of())).getId();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        MvcResult started = mockMvc.perform(get("/api/v1/admin/movies:export"))
+                .andExpect(status().isOk())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertEquals(3, lines.length);
+        assertEquals(movieId, ((Number) JsonPath.read(lines[0], "$.id")).longValue());
+        assertEquals(List.of("Drama"), JsonPath.read(lines[0], "$.genres"));
+        assertEquals(comedyId, ((Number) JsonPath.read(lines[1], "$.id")).longValue());
+        assertEquals(2, (int) JsonPath.read(lines[1], "$.genres.length()"));
+        assertEquals(bareId, ((Number) JsonPath.read(lines[2], "$.id")).longValue());
+        assertEquals(List.of(), JsonPath.read(lines[2], "$.genres"));
+        // one plain JDBC query; nothing goes through Hibernate, so no per-movie genre loads
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testExportMovies_AsUser_Returns403() throws Exception {
+        mockMvc.perform(get("/api/v1/admin/movies:export"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testRecomputeSimilarMovies_FullThenIncrementalRun() throws Exception {
+        List<Long> movies = importTasteProfiles();
+        Long lookalikeId = movies.get(1);
+        Long oppositeId = movies.get(2);
+
+        mockMvc.perform(post("/api/v1/admin/similar-movies:recompute").with(csrf()).param("full", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.full").value(true))
+                .andExpect(jsonPath("$.ratingsLoaded").value(12))
+                .andExpect(jsonPath("$.moviesRecomputed").value(3));
+
+        mockMvc.perform(get("/api/v1/movies/{id}/similar", movieId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].movieId").value(lookalikeId))
+                .andExpect(jsonPath("$[0].title").value("Lookalike"))
+                .andExpect(jsonPath("$[0].similarity").value(greaterThan(0.5)));
+
+        mockMvc.perform(post("/api/v1/admin/similar-movies:recompute").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.full").value(false))
+                .andExpect(jsonPath("$.moviesRecomputed").value(0));
+
+        // a new rating of one movie reaches the movies sharing a rater with it
+        Long eveId = userRepository.save(new User("eve@example.com", "password", null)).getId();
+        mockMvc.perform(post("/api/v1/admin/reviews:import")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"userId\": %d, \"movieId\": %d, \"rating\": 4, \"comment\": \"ok\"}".formatted(eveId, oppositeId)))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/v1/admin/similar-movies:recompute").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.moviesRecomputed").value(3));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testRecomputeSimilarMovies_AsUser_Returns403() throws Exception {
+        mockMvc.perform(post("/api/v1/admin/similar-movies:recompute").with(csrf()))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testRecommendations_FromNeighboursAndRefreshedOnWatchlistAdd() throws Exception {
+        List<Long> movies = importTasteProfiles();
+        Long frankId = userRepository.save(new User("frank@example.com", "password", null)).getId();
+        Long ginaId = userRepository.save(new User("gina@example.com", "password", null)).getId();
+        mockMvc.perform(post("/api/v1/admin/reviews:import")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"userId\": %d, \"movieId\": %d, \"rating\": 5, \"comment\": \"ok\"}".formatted(frankId, movieId)))
+                .andExpect(status().isOk());
+
+        // the run publishes an event that rebuilds every user's list once the request has returned
+        mockMvc.perform(post("/api/v1/admin/similar-movies:recompute").with(csrf()).param("full", "true"))
+                .andExpect(status().isOk());
+        awaitRecommendations(frankId, 1);
+
+        mockMvc.perform(get("/api/v1/users/{id}/recommendations", frankId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].rank").value(1))
+                .andExpect(jsonPath("$[0].movieId").value(movies.get(1)))
+                .andExpect(jsonPath("$[0].title").value("Lookalike"));
+        // alice has seen all three movies
+        mockMvc.perform(get("/api/v1/users/{id}/recommendations", aliceId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(get("/api/v1/users/{id}/recommendations", ginaId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+
+        mockMvc.perform(post("/api/v1/users/{userId}/watchlist", ginaId)
+                        .with(csrf())
+                        .param("movieId", movieId.toString()))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/v1/users/{id}/recommendations", ginaId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].movieId").value(movies.get(1)));
+
+        watchlistRepository.deleteAll();
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testRecommendations_UnknownUser_Returns404() throws Exception {
+        mockMvc.perform(get("/api/v1/users/{id}/recommendations", 999999))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/users/{id}/recommendations", aliceId).param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // the rebuild swaps in every list at once, so once this user's list is there all of them are
+    private void awaitRecommendations(Long userId, int count) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            String body = mockMvc.perform(get("/api/v1/users/{id}/recommendations", userId))
+                    .andReturn().getResponse().getContentAsString();
+            if (JsonPath.<Integer>read(body, "$.length()") == count) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    /**
+     * Four users rate the movie, a lookalike rated the same way and an opposite rated the other
+     * way round. Returns the three movie ids in that order.
+     */
+    private List<Long> importTasteProfiles() throws Exception {
+        Long carolId = userRepository.save(new User("carol@example.com", "password", null)).getId();
+        Long daveId = userRepository.save(new User("dave@example.com", "password", null)).getId();
+        Long lookalikeId = movieRepository.save(new Movie("Lookalike", 2021, "a.jpg", List.of("Drama"))).getId();
+        Long oppositeId = movieRepository.save(new Movie("Opposite", 2022, "b.jpg", List.of("Drama"))).getId();
+
+        List<Long> users = List.of(aliceId, bobId, carolId, daveId);
+        int[][] ratings = {{5, 5, 1, 1}, {5, 4, 1, 2}, {1, 1, 5, 5}};
+        List<Long> movies = List.of(movieId, lookalikeId, oppositeId);
+        StringBuilder ndjson = new StringBuilder();
+        for (int m = 0; m < movies.size(); m++) {
+            for (int u = 0; u < users.size(); u++) {
+                ndjson.append("{\"userId\": %d, \"movieId\": %d, \"rating\": %d, \"comment\": \"ok\"}\n"
+                        .formatted(users.get(u), movies.get(m), ratings[m][u]));
+            }
+        }
+        mockMvc.perform(post("/api/v1/admin/reviews:import")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(12));
+        return movies;
+    }
+}
@@ -3,6 +3,8 @@ package com.popcornpicks.controller;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -11,19 +13,46 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 
 
 
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
 import com.popcornpicks.models.Movie;
+import com.popcornpicks.models.RatingDelta;
+import com.popcornpicks.models.User;
 import com.popcornpicks.repository.MovieRepository;
+import com.popcornpicks.repository.ReviewRepository;
+import com.popcornpicks.repository.UserRepository;
+import com.popcornpicks.repository.WatchlistRepository;
+import com.popcornpicks.service.LeaderboardService;
+import com.popcornpicks.service.MovieService;
+import com.popcornpicks.service.impl.BitmapGenreIndex;
+import com.popcornpicks.service.impl.TrieSuggestionService;
+import com.popcornpicks.service.impl.InMemoryMovieSearchIndex;
+import com.popcornpicks.service.impl.TrendingServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.security.test.context.support.WithMockUser;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 
 
@@ -38,11 +67,48 @@ class MovieControllerIntegrationTest {
     @Autowired
     private MovieRepository movieRepository;
 
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WatchlistRepository watchlistRepository;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private TrendingServiceImpl trendingService;
+
+    @Autowired
+    private InMemoryMovieSearchIndex searchIndex;
+
+    @Autowired
+    private BitmapGenreIndex genreIndex;
+
+    @Autowired
+    private TrieSuggestionService suggestionService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private Long testMovieId;
 
     @BeforeEach
     void setUp() {
 
+        reviewRepository.deleteAll();
         movieRepository.deleteAll();
 
 
@@ -52,6 +118,10 @@ class MovieControllerIntegrationTest {
         movie.setPosterPath("test.jpg");
         movie.setAverageRating(0.0);
         movie.setGenres(List.of("Drama"));
+        movie.setRatingSum(9);
+        movie.setRatingCount(2);
+        movie.setFourStarCount(1);
+        movie.setFiveStarCount(1);
 
 
         testMovieId = movieRepository.save(movie).getId();
@@ -74,6 +144,490 @@ class MovieControllerIntegrationTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void testSearchByTitle_RanksByRelevance() throws Exception {
+        Movie sequel = new Movie();
+        sequel.setTitle("Test Movie Strikes Back");
+        sequel.setYear(2025);
+        sequel.setGenres(List.of("Drama"));
+        Long sequelId = movieRepository.save(sequel).getId();
+        searchIndex.rebuild();
+
+        mockMvc.perform(get("/api/v1/movies")
+                        .param("title", "movie tes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.content[0].id").value(testMovieId))
+                .andExpect(jsonPath("$.content[1].id").value(sequelId));
+
+        mockMvc.perform(get("/api/v1/movies")
+                        .param("title", "strikes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(sequelId));
+    }
+
+    @Test
+    void testSearchByTitle_FuzzyToleratesTypos() throws Exception {
+        searchIndex.rebuild();
+
+        mockMvc.perform(get("/api/v1/movies")
+                        .param("title", "tset movei"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(0));
+
+        mockMvc.perform(get("/api/v1/movies")
+                        .param("title", "tset movei")
+                        .param("fuzzy", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(testMovieId));
+
+        mockMvc.perform(get("/api/v1/movies")
+                        .param("title", "tset movei")
+                        .param("fuzzy", "true")
+                        .param("withTotal", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(testMovieId));
+    }
+
+    @Test
+    void testSearchByTitle_FuzzyWithOtherFilters_Returns400() throws Exception {
+        mockMvc.perform(get("/api/v1/movies")
+                        .param("title", "tset")
+                        .param("genre", "Drama")
+                        .param("fuzzy", "true"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/v1/movies")
+                        .param("fuzzy", "true"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/v1/movies")
+                        .param("title", "tset")
+                        .param("fuzzy", "true")
+                        .param("facets", "genre"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("fuzzy cannot be combined with facets"));
+    }
+
+    @Test
+    void testList_CombinesFiltersInOneQuery() throws Exception {
+        Long match = saveMovie("Parasite", 2019, 4.6, List.of("Drama", "Thriller"));
+        saveMovie("Joker", 2019, 3.9, List.of("Drama", "Thriller"));
+        saveMovie("Knives Out", 2019, 4.3, List.of("Comedy", "Thriller"));
+        saveMovie("The Departed", 2006, 4.5, List.of("Drama", "Thriller"));
+
+        mockMvc.perform(get("/api/v1/movies")
+                        .param("genres", "Drama", "Thriller")
+                        .param("genreMatch", "all")
+                        .param("yearFrom", "2019")
+                        .param("minRating", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(match));
+
+        mockMvc.perform(get("/api/v1/movies")
+                        .param("genres", "Comedy", "Thriller")
+                        .param("year", "2019")
+                        .param("sort", "title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.content[0].title").value("Joker"));
+    }
+
+    @Test
+    void testList_FacetsCountTheFilteredSetInOneQueryEach() throws Exception {
+        saveMovie("Parasite", 2019, 4.6, List.of("Drama", "Thriller"));
+        saveMovie("Joker", 2019, 3.9, List.of("Drama", "Thriller"));
+        saveMovie("Knives Out", 2019, 4.3, List.of("Comedy", "Thriller"));
+        saveMovie("The Departed", 2006, 4.5, List.of("Drama", "Thriller"));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/v1/movies")
+                        .param("genre", "Thriller")
+                        .param("yearFrom", "2000")
+                        .param("facets", "genre,year,rating")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(4))
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.facets.genre.Thriller").value(4))
+                .andExpect(jsonPath("$.facets.genre.Drama").value(3))
+                .andExpect(jsonPath("$.facets.genre.Comedy").value(1))
+                .andExpect(jsonPath("$.facets.year.2000").value(1))
+                .andExpect(jsonPath("$.facets.year.2010").value(3))
+                .andExpect(jsonPath("$.facets.rating.3").value(1))
+                .andExpect(jsonPath("$.facets.rating.4").value(3));
+
+        // page query + count query + genres of the page + one grouped query per facet
+        assertEquals(6, statistics.getPrepareStatementCount());
+
+        mockMvc.perform(get("/api/v1/movies")
+                        .param("facets", "genre"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.facets.genre.Drama").value(4))
+                .andExpect(jsonPath("$.facets.year").doesNotExist());
+    }
+
+    @Test
+    void testList_UnknownFacet_Returns400() throws Exception {
+        mockMvc.perform(get("/api/v1/movies")
+                        .param("facets", "director"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testList_FacetsOnATitleOnlySearch_Returns400() throws Exception {
+        // the page would come from the search index, the counts from the filter query
+        mockMvc.perform(get("/api/v1/movies")
+                        .param("title", "test")
+                        .param("facets", "genre"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/v1/movies")
+                        .param("title", "test")
+                        .param("genre", "Drama")
+                        .param("facets", "genre"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.facets.genre.Drama").value(1));
+    }
+
+    @Test
+    void testList_WithoutTotal_SkipsTheCountQuery() throws Exception {
+        saveMovie("Test Movie 2", 2020, 4.0, List.of("Drama"));
+        saveMovie("Test Movie 3", 2021, 4.0, List.of("Drama"));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/v1/movies")
+                        .param("yearFrom", "2020")
+                        .param("yearTo", "2021")
+                        .param("withTotal", "false")
+                        .param("sort", "year")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].title").value("Test Movie 2"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        // page query (one row past the page) + the genres of the movie on the page
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        mockMvc.perform(get("/api/v1/movies")
+                        .param("yearFrom", "2020")
+                        .param("yearTo", "2021")
+                        .param("withTotal", "false")
+                        .param("sort", "year")
+                        .param("size", "1")
+                        .param("page", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Test Movie 3"))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    void testList_TitleWithOtherFiltersIsOneStatementPerPage() throws Exception {
+        saveMovie("Test Movie 2", 2020, 4.0, List.of("Drama"));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/v1/movies")
+                        .param("title", "test movie")
+                        .param("genre", "Drama")
+                        .param("yearTo", "2020")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].title").value("Test Movie 2"));
+
+        // page query + count query + the genres of the movie on the page
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testList_GenreOnlyFilterAndCountsComeFromTheBitmapIndex() throws Exception {
+        Long thriller = saveMovie("Parasite", 2019, 4.6, List.of("Drama", "Thriller"));
+        saveMovie("Knives Out", 2019, 4.3, List.of("Comedy"));
+        genreIndex.rebuild();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/v1/movies")
+                        .param("genres", "Drama", "Thriller")
+                        .param("genreMatch", "all"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(thriller));
+        // ids and total come from the bitmaps: one select by id for the page plus its genres, no count
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        mockMvc.perform(get("/api/v1/movies/genres"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.Drama").value(2))
+                .andExpect(jsonPath("$.Thriller").value(1))
+                .andExpect(jsonPath("$.Comedy").value(1));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testMoviePages_LoadGenresInOneQuery() throws Exception {
+        for (int i = 0; i < 25; i++) {
+            saveMovie("Batch Movie " + i, 2024, 3.5, List.of("Drama", "Genre " + i));
+        }
+        searchIndex.rebuild();
+        genreIndex.rebuild();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // page query + count query + one genres query for all 20 movies on the page
+        for (String url : List.of(
+                "/api/v1/movies",
+                "/api/v1/movies?year=2024",
+                "/api/v1/movies/order-by-date",
+                "/api/v1/movies/above-rating?rating=3",
+                "/api/v1/movies/created-after?timestamp=2000-01-01T00:00:00")) {
+            statistics.clear();
+            mockMvc.perform(get(url))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content.length()").value(20))
+                    .andExpect(jsonPath("$.content[19].genres.length()").value(2));
+            assertEquals(3, statistics.getPrepareStatementCount(), url);
+        }
+
+        // index-backed pages have no count query
+        for (String url : List.of("/api/v1/movies?title=batch", "/api/v1/movies?genre=Drama")) {
+            statistics.clear();
+            mockMvc.perform(get(url))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content.length()").value(20));
+            assertEquals(2, statistics.getPrepareStatementCount(), url);
+        }
+    }
+
+    @Test
+    void getMovieById_IfNoneMatch_Returns304WithoutLoadingTheMovie() throws Exception {
+        String etag = mockMvc.perform(get("/api/v1/movies/" + testMovieId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache, public"))
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/v1/movies/" + testMovieId).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        // a rating change bumps the movie's version
+        transactionTemplate.executeWithoutResult(
+                status -> movieRepository.applyRatingDelta(testMovieId, RatingDelta.added(3)));
+        mockMvc.perform(get("/api/v1/movies/" + testMovieId).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getMovieById_ChangesETagOnUpdate() throws Exception {
+        String etag = mockMvc.perform(get("/api/v1/movies/" + testMovieId))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(put("/api/v1/movies/" + testMovieId)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Renamed\",\"year\":2024,\"posterPath\":\"p.jpg\",\"genres\":[\"Drama\"]}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/movies/" + testMovieId).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Renamed"));
+    }
+
+    @Test
+    void testUpdateMovie_KeepsRatingsAppliedAfterTheMovieWasRead() {
+        TransactionTemplate concurrentWrite = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        concurrentWrite.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            movieRepository.findById(testMovieId).orElseThrow();
+            // a review commits between the read and the edit's flush
+            concurrentWrite.executeWithoutResult(
+                    inner -> movieRepository.applyRatingDelta(testMovieId, RatingDelta.added(3)));
+            movieService.updateMovie(testMovieId, new Movie("Renamed", 2024, "p.jpg", new ArrayList<>(List.of("Drama"))));
+        });
+
+        Movie movie = movieRepository.findById(testMovieId).orElseThrow();
+        assertEquals("Renamed", movie.getTitle());
+        assertEquals(3, movie.getRatingCount());
+        assertEquals(12, movie.getRatingSum());
+        assertEquals(1, movie.getThreeStarCount());
+    }
+
+    @Test
+    void testUpdateMovie_ConcurrentRatingWaitsAndGetsItsOwnVersion() throws Exception {
+        long before = movieRepository.findById(testMovieId).orElseThrow().getVersion();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> rating = transactionTemplate.execute(status -> {
+                movieService.updateMovie(testMovieId, new Movie("Renamed", 2024, "p.jpg", new ArrayList<>(List.of("Drama"))));
+                Future<?> delta = executor.submit(() -> transactionTemplate.executeWithoutResult(
+                        inner -> movieRepository.applyRatingDelta(testMovieId, RatingDelta.added(3))));
+                // the edit holds the row lock until it commits
+                assertThrows(TimeoutException.class, () -> delta.get(200, TimeUnit.MILLISECONDS));
+                return delta;
+            });
+            rating.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+
+        Movie movie = movieRepository.findById(testMovieId).orElseThrow();
+        assertEquals(before + 2, movie.getVersion());
+        assertEquals("Renamed", movie.getTitle());
+        assertEquals(3, movie.getRatingCount());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testList_IfNoneMatch_Returns304UntilTheCatalogChanges() throws Exception {
+        String etag = mockMvc.perform(get("/api/v1/movies").param("genre", "Drama"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/v1/movies").param("genre", "Drama").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        // the catalog version is one JDBC primary-key read, no Hibernate statement
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        mockMvc.perform(post("/api/v1/movies")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"New Drama\",\"year\":2024,\"posterPath\":\"p.jpg\",\"genres\":[\"Drama\"]}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/v1/movies").param("genre", "Drama").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testList_IfNoneMatch_SeesCatalogChangesMadeByAnotherInstance() throws Exception {
+        String etag = mockMvc.perform(get("/api/v1/movies").param("genre", "Drama"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // another instance shares only the database: its write bumps the version row
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "update catalog_version set version = version + 1, updated_at = current_timestamp"));
+
+        mockMvc.perform(get("/api/v1/movies").param("genre", "Drama").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)));
+    }
+
+    @Test
+    void testSuggest_ReturnsMostReviewedTitlesForAWordPrefix() throws Exception {
+        Movie sequel = new Movie();
+        sequel.setTitle("Test Movie Strikes Back");
+        sequel.setYear(2025);
+        sequel.setGenres(List.of("Drama"));
+        sequel.setRatingSum(40);
+        sequel.setRatingCount(10);
+        Long sequelId = movieRepository.save(sequel).getId();
+        saveMovie("Unrelated", 2020, 0.0, List.of("Drama"));
+        suggestionService.rebuild();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/v1/movies/suggest")
+                        .param("q", "MOV"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].movieId").value(sequelId))
+                .andExpect(jsonPath("$[0].title").value("Test Movie Strikes Back"))
+                .andExpect(jsonPath("$[1].movieId").value(testMovieId));
+
+        mockMvc.perform(get("/api/v1/movies/suggest")
+                        .param("q", "test")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testSuggest_InvalidLimit_Returns400() throws Exception {
+        mockMvc.perform(get("/api/v1/movies/suggest")
+                        .param("q", "test")
+                        .param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void testTrending_CountsNewReviewsAndWatchlistAddsAndSurvivesARestart() throws Exception {
+        // other tests leave activity behind in the shared counters, so make this movie the busiest
+        Long reviewerId = null;
+        for (int i = 0; i < 50; i++) {
+            User reviewer = new User();
+            reviewer.setEmail("trending" + i + "@example.com");
+            reviewer.setPassword("password");
+            reviewerId = userRepository.save(reviewer).getId();
+            mockMvc.perform(post("/api/v1/reviews")
+                            .with(csrf())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(String.format("""
+                                    { "userId": %d, "movieId": %d, "rating": 4, "comment": "Worth it" }
+                                    """, reviewerId, testMovieId)))
+                    .andExpect(status().isCreated());
+        }
+        mockMvc.perform(post("/api/v1/users/{userId}/watchlist", reviewerId)
+                        .with(csrf())
+                        .param("movieId", testMovieId.toString()))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/v1/movies/trending").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].rank").value(1))
+                .andExpect(jsonPath("$[0].movieId").value(testMovieId))
+                .andExpect(jsonPath("$[0].title").value("Test Movie"))
+                .andExpect(jsonPath("$[0].reviews").value(50))
+                .andExpect(jsonPath("$[0].watchlistAdds").value(1))
+                .andExpect(jsonPath("$[0].score").value(51));
+
+        trendingService.checkpoint();
+        trendingService.restore();
+
+        mockMvc.perform(get("/api/v1/movies/trending").param("window", "7d").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].movieId").value(testMovieId))
+                .andExpect(jsonPath("$[0].score").value(51));
+
+        watchlistRepository.deleteAll();
+    }
+
+    @Test
+    void testTrending_InvalidWindowOrLimit_Returns400() throws Exception {
+        mockMvc.perform(get("/api/v1/movies/trending").param("window", "1y"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/movies/trending").param("limit", "101"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testList_InvalidGenreMatch_Returns400() throws Exception {
+        mockMvc.perform(get("/api/v1/movies")
+                        .param("genre", "Drama")
+                        .param("genreMatch", "some"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @WithMockUser
     void testFilterByGenre_Returns200() throws Exception {
@@ -89,6 +643,33 @@ class MovieControllerIntegrationTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getRatingDistribution_ReturnsStarCounts() throws Exception {
+        mockMvc.perform(get("/api/v1/movies/" + testMovieId + "/ratings/distribution"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.movieId").value(testMovieId))
+                .andExpect(jsonPath("$.ratingCount").value(2))
+                .andExpect(jsonPath("$.oneStar").value(0))
+                .andExpect(jsonPath("$.fourStar").value(1))
+                .andExpect(jsonPath("$.fiveStar").value(1));
+    }
+
+    @Test
+    void getTopMovies_RanksRatedMoviesOverallAndByGenre() throws Exception {
+        leaderboardService.rebuild();
+
+        mockMvc.perform(get("/api/v1/movies/top"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].rank").value(1))
+                .andExpect(jsonPath("$.content[0].movieId").value(testMovieId))
+                .andExpect(jsonPath("$.content[0].ratingCount").value(2));
+
+        mockMvc.perform(get("/api/v1/movies/top").param("genre", "Comedy"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(0));
+    }
+
     @Test
     void testUploadFile_UnauthenticatedUserGets403() throws Exception {
         mockMvc.perform(post("/api/v1/files/upload"))
@@ -249,26 +830,12 @@ class MovieControllerIntegrationTest {
     }
 
 
+    private Long saveMovie(String title, int year, double averageRating, List<String> genres) {
+        Movie movie = new Movie();
+        movie.setTitle(title);
+        movie.setYear(year);
+        movie.setAverageRating(averageRating);
+        movie.setGenres(genres);
+        return movieRepository.save(movie).getId();
+    }
 }
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
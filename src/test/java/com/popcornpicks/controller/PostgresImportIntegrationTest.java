@@ -0,0 +1,137 @@
+package com.popcornpicks.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.popcornpicks.models.Movie;
+import com.popcornpicks.models.User;
+import com.popcornpicks.repository.MovieRepository;
+import com.popcornpicks.repository.ReviewRepository;
+import com.popcornpicks.repository.UserRepository;
+import com.popcornpicks.repository.WatchlistRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+/**
+ * Runs the bulk write paths against a real Postgres with the production settings from
+ * application.properties, in particular reWriteBatchedInserts=true, under which the driver
+ * reports no per-row counts for insert batches. Needs an empty, disposable database:
+ * POPCORNPICKS_TEST_POSTGRES_URL=jdbc:postgresql://host:5432/db, with SPRING_DATASOURCE_USERNAME
+ * and SPRING_DATASOURCE_PASSWORD when they differ from application.properties.
+ */
+@SpringBootTest(properties = "popcornpicks.similar.initial-delay-ms=3600000")
+@AutoConfigureMockMvc
+@EnabledIfEnvironmentVariable(named = "POPCORNPICKS_TEST_POSTGRES_URL", matches = ".+")
+@WithMockUser(roles = "ADMIN")
+class PostgresImportIntegrationTest {
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        // same driver options as the production URL
+        registry.add("spring.datasource.url",
+                () -> System.getenv("POPCORNPICKS_TEST_POSTGRES_URL") + "?reWriteBatchedInserts=true");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WatchlistRepository watchlistRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${spring.datasource.url}")
+    private String datasourceUrl;
+
+    private Long aliceId;
+    private Long bobId;
+    private Long movieId;
+
+    @BeforeEach
+    void setUp() {
+        watchlistRepository.deleteAll();
+        reviewRepository.deleteAll();
+        movieRepository.deleteAll();
+        userRepository.deleteAll();
+
+        aliceId = userRepository.save(new User("alice@example.com", "password", null)).getId();
+        bobId = userRepository.save(new User("bob@example.com", "password", null)).getId();
+        movieId = movieRepository.save(new Movie("Imported Movie", 2020, "imported.jpg", List.of("Drama"))).getId();
+    }
+
+    @Test
+    void testImportReviews_ReportsDuplicatesWithRewrittenBatches() throws Exception {
+        assertTrue(datasourceUrl.contains("reWriteBatchedInserts=true"));
+
+        mockMvc.perform(post("/api/v1/admin/reviews:import")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"userId\": %d, \"movieId\": %d, \"rating\": 4, \"comment\": \"Good\"}"
+                                .formatted(aliceId, movieId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+
+        mockMvc.perform(post("/api/v1/admin/reviews:import")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(String.join("\n",
+                                "{\"userId\": %d, \"movieId\": %d, \"rating\": 1, \"comment\": \"Again\"}"
+                                        .formatted(aliceId, movieId),
+                                "{\"userId\": %d, \"movieId\": %d, \"rating\": 2, \"comment\": \"Meh\"}"
+                                        .formatted(bobId, movieId),
+                                "{\"userId\": %d, \"movieId\": %d, \"rating\": 5, \"comment\": \"Twice\"}"
+                                        .formatted(bobId, movieId))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.duplicates").value(2));
+
+        Movie movie = movieRepository.findById(movieId).orElseThrow();
+        assertEquals(2, movie.getRatingCount());
+        assertEquals(3.0, movie.getAverageRating());
+    }
+
+    @Test
+    @WithMockUser(username = "alice@example.com")
+    void testBulkWatchlistAdd_ReportsOnlyInsertedRows() throws Exception {
+        String body = "{ \"add\": [%d] }".formatted(movieId);
+
+        mockMvc.perform(post("/api/v1/users/{userId}/watchlist/bulk", aliceId)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.added").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("ADDED"));
+
+        mockMvc.perform(post("/api/v1/users/{userId}/watchlist/bulk", aliceId)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.added").value(0))
+                .andExpect(jsonPath("$.results[0].status").value("ALREADY_ON_WATCHLIST"));
+    }
+}
@@ -0,0 +1,106 @@
+package com.popcornpicks.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.popcornpicks.models.Movie;
+import com.popcornpicks.repository.MovieRepository;
+import com.popcornpicks.repository.ReviewRepository;
+import com.popcornpicks.repository.WatchlistRepository;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+/**
+ * Runs the title search SQL of the postgres engine against a real Postgres with the indexes
+ * from data-postgres.sql. Needs an empty, disposable database, see
+ * {@link PostgresImportIntegrationTest}.
+ */
+@SpringBootTest(properties = {
+        "popcornpicks.similar.initial-delay-ms=3600000",
+        "popcornpicks.search.engine=postgres"
+})
+@AutoConfigureMockMvc
+@EnabledIfEnvironmentVariable(named = "POPCORNPICKS_TEST_POSTGRES_URL", matches = ".+")
+@WithMockUser
+class PostgresSearchIntegrationTest {
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url",
+                () -> System.getenv("POPCORNPICKS_TEST_POSTGRES_URL") + "?reWriteBatchedInserts=true");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WatchlistRepository watchlistRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    private Long matrixId;
+    private Long reloadedId;
+    private Long matroxId;
+
+    @BeforeEach
+    void setUp() {
+        watchlistRepository.deleteAll();
+        reviewRepository.deleteAll();
+        movieRepository.deleteAll();
+
+        matrixId = movieRepository.save(new Movie("The Matrix", 1999, "matrix.jpg", List.of("Action"))).getId();
+        reloadedId = movieRepository.save(
+                new Movie("The Matrix Reloaded", 2003, "reloaded.jpg", List.of("Action"))).getId();
+        // a trigram near-miss of "the matrix" as a whole, without the token "matrix"
+        matroxId = movieRepository.save(new Movie("The Matrox", 2010, "matrox.jpg", List.of("Comedy"))).getId();
+    }
+
+    @Test
+    void testSearchByTitle_MatchesEveryTokenAndRanksTheCloserTitleFirst() throws Exception {
+        mockMvc.perform(get("/api/v1/movies")
+                        .param("title", "the matrix"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.content[0].id").value(matrixId))
+                .andExpect(jsonPath("$.content[1].id").value(reloadedId));
+
+        mockMvc.perform(get("/api/v1/movies")
+                        .param("title", "the matrix")
+                        .param("withTotal", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[*].id", Matchers.not(Matchers.hasItem(matroxId.intValue()))));
+
+        mockMvc.perform(get("/api/v1/movies")
+                        .param("title", "matr"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(3));
+    }
+
+    @Test
+    void testSearchByTitle_FuzzyFindsTheNearMiss() throws Exception {
+        mockMvc.perform(get("/api/v1/movies")
+                        .param("title", "the matrix")
+                        .param("fuzzy", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.content[0].id").value(matrixId))
+                .andExpect(jsonPath("$.content[2].id").value(matroxId));
+    }
+}
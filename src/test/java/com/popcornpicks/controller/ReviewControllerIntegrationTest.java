@@ -9,26 +9,50 @@ import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.jayway.jsonpath.JsonPath;
 import com.popcornpicks.models.Review;
 import com.popcornpicks.models.Movie;
 import com.popcornpicks.models.User;
 import com.popcornpicks.repository.ReviewRepository;
 import com.popcornpicks.repository.MovieRepository;
 import com.popcornpicks.repository.UserRepository;
+import com.popcornpicks.repository.WatchlistRepository;
+import com.popcornpicks.service.LeaderboardService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
+// the counting DataSource makes this a context of its own; its create-drop schema must not reset
+// the tables and sequences under the contexts the other test classes share
 @ActiveProfiles("test")
-@SpringBootTest
+@SpringBootTest(properties = "spring.datasource.url="
+        + "jdbc:h2:mem:reviewtestdb;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH")
 @AutoConfigureMockMvc
 class ReviewControllerIntegrationTest {
 
@@ -44,12 +68,22 @@ class ReviewControllerIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private WatchlistRepository watchlistRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
     private Long testMovieId;
     private Long testReviewId;
     private Long testUserId;
 
     @BeforeEach
     void setUp() {
+        watchlistRepository.deleteAll();
         reviewRepository.deleteAll();
         movieRepository.deleteAll();
         userRepository.deleteAll();
@@ -118,6 +152,54 @@ class ReviewControllerIntegrationTest {
                 .andExpect(jsonPath("$.comment").value("Great movie!"));
     }
 
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void testCreateReview_IsOneInsertPlusOneAggregateUpdate() throws Exception {
+        int requests = 200;
+        List<Long> movieIds = seedMovies(requests);
+        leaderboardService.rebuild();   // otherwise its after-commit listener loads each unseen movie
+
+        // every statement the request thread sends, Hibernate's and JdbcTemplate's alike; the
+        // catalog version is bumped later, on its own thread, outside the review transaction
+        long statements = 0;
+        for (Long movieId : movieIds) {
+            StatementCounter.start();
+            mockMvc.perform(post("/api/v1/reviews")
+                            .with(csrf())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(reviewJson(testUserId, movieId, 4)))
+                    .andExpect(status().isCreated());
+            statements += StatementCounter.stop();
+        }
+
+        assertEquals(2L * requests, statements);
+        Movie rated = movieRepository.findById(movieIds.get(0)).orElseThrow();
+        assertEquals(1, rated.getRatingCount());
+        assertEquals(4, rated.getRatingSum());
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void testCreateReview_Duplicate_Returns409() throws Exception {
+        mockMvc.perform(post("/api/v1/reviews")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(reviewJson(testUserId, testMovieId, 2)))
+                .andDo(print())
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void testCreateReview_UnknownMovie_Returns404() throws Exception {
+        mockMvc.perform(post("/api/v1/reviews")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(reviewJson(testUserId, testMovieId + 1000, 2)))
+                .andDo(print())
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @WithMockUser(username = "test@example.com")
     void testGetReviewsByMovie_Returns200() throws Exception {
@@ -127,6 +209,101 @@ class ReviewControllerIntegrationTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void testListByCursor_WalksAllPagesWithoutTotals() throws Exception {
+        seedReviews(2);
+
+        MvcResult first = mockMvc.perform(get("/api/v1/reviews")
+                        .param("movieId", testMovieId.toString())
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andReturn();
+        String cursor = JsonPath.read(first.getResponse().getContentAsString(), "$.nextCursor");
+
+        mockMvc.perform(get("/api/v1/reviews")
+                        .param("movieId", testMovieId.toString())
+                        .param("after", cursor)
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void testListByMovie_StatementCountDoesNotGrowWithPageSize() throws Exception {
+        seedReviews(9);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/v1/reviews")
+                        .param("movieId", testMovieId.toString())
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(10));
+
+        // movie existence check, page query, count query: no user, role or movie loads
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void testListWithoutTotal_SkipsTheCountQuery() throws Exception {
+        seedReviews(2);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/v1/reviews")
+                        .param("movieId", testMovieId.toString())
+                        .param("withTotal", "false")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        // movie existence check and the page query
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        mockMvc.perform(get("/api/v1/reviews")
+                        .param("userId", testUserId.toString())
+                        .param("withTotal", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void testListByCursor_StatementCountDoesNotGrowWithPageSize() throws Exception {
+        seedReviews(9);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/v1/reviews")
+                        .param("userId", testUserId.toString())
+                        .param("limit", "10"))
+                .andExpect(status().isOk());
+
+        // user existence check and the seek query
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void testListByCursor_InvalidCursor_Returns400() throws Exception {
+        mockMvc.perform(get("/api/v1/reviews")
+                        .param("movieId", testMovieId.toString())
+                        .param("after", "not-a-cursor")
+                        .param("limit", "2"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @WithMockUser(username = "test@example.com")
     void testListWithoutParams_Returns400() throws Exception {
@@ -163,4 +340,107 @@ class ReviewControllerIntegrationTest {
                 .andDo(print())
                 .andExpect(status().isNoContent());
     }
+
+
+    private List<Long> seedMovies(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Movie movie = new Movie();
+            movie.setTitle("Benchmark Movie " + i);
+            movie.setYear(2024);
+            movie.setGenres(List.of("Drama"));
+            ids.add(movieRepository.save(movie).getId());
+        }
+        return ids;
+    }
+
+    private static String reviewJson(Long userId, Long movieId, int rating) {
+        return String.format("""
+        {
+          "userId": %d,
+          "movieId": %d,
+          "rating": %d,
+          "comment": "Benchmark"
+        }
+        """, userId, movieId, rating);
+    }
+
+    private void seedReviews(int count) {
+        Movie movie = movieRepository.findById(testMovieId).orElseThrow();
+        for (int i = 0; i < count; i++) {
+            User other = userRepository.save(
+                    new User("reviewer" + i + "@example.com", "password", Set.of("USER"))
+            );
+            reviewRepository.save(new Review(3, "Review " + i, other, movie));
+        }
+    }
+
+    /** Counts the JDBC statements prepared on the thread that called {@link #start()}. */
+    static final class StatementCounter {
+        private static final AtomicLong statements = new AtomicLong();
+        private static volatile Thread counted;
+
+        static void start() {
+            statements.set(0);
+            counted = Thread.currentThread();
+        }
+
+        static long stop() {
+            counted = null;
+            return statements.get();
+        }
+
+        static void prepared() {
+            if (Thread.currentThread() == counted) {
+                statements.incrementAndGet();
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class CountingDataSourceConfig {
+
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? new CountingDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    private static final class CountingDataSource extends DelegatingDataSource {
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return counting(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return counting(super.getConnection(username, password));
+        }
+
+        private static Connection counting(Connection target) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.equals("prepareStatement") || name.equals("prepareCall")
+                                || name.equals("createStatement")) {
+                            StatementCounter.prepared();
+                        }
+                        try {
+                            return method.invoke(target, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getTargetException();
+                        }
+                    });
+        }
+    }
 }
@@ -0,0 +1,297 @@
+package com.popcornpicks.controller;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.jayway.jsonpath.JsonPath;
+import com.popcornpicks.dto.WatchlistBulkResponse;
+import com.popcornpicks.models.Movie;
+import com.popcornpicks.models.User;
+import com.popcornpicks.repository.MovieRepository;
+import com.popcornpicks.repository.ReviewRepository;
+import com.popcornpicks.repository.UserRepository;
+import com.popcornpicks.repository.WatchlistRepository;
+import com.popcornpicks.service.WatchlistService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(username = "watcher@example.com")
+class WatchlistControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WatchlistRepository watchlistRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WatchlistService watchlistService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long userId;
+    private Long firstMovieId;
+    private Long secondMovieId;
+    private Long thirdMovieId;
+
+    @BeforeEach
+    void setUp() {
+        watchlistRepository.deleteAll();
+        reviewRepository.deleteAll();
+        movieRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User user = new User();
+        user.setEmail("watcher@example.com");
+        user.setPassword("password");
+        userId = userRepository.save(user).getId();
+
+        firstMovieId = saveMovie("Alien");
+        secondMovieId = saveMovie("Aliens");
+        thirdMovieId = saveMovie("Alien 3");
+    }
+
+    // other test classes delete movies without touching watchlists
+    @AfterEach
+    void tearDown() {
+        watchlistRepository.deleteAll();
+    }
+
+    @Test
+    void testAdd_IsIdempotentAndReturnsTheExistingItem() throws Exception {
+        MvcResult created = mockMvc.perform(post("/api/v1/users/{userId}/watchlist", userId)
+                        .with(csrf())
+                        .param("movieId", firstMovieId.toString()))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.movieId").value(firstMovieId))
+                .andExpect(jsonPath("$.title").value("Alien"))
+                .andExpect(jsonPath("$.addedAt").isNotEmpty())
+                .andReturn();
+        Integer itemId = JsonPath.read(created.getResponse().getContentAsString(), "$.id");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(post("/api/v1/users/{userId}/watchlist", userId)
+                        .with(csrf())
+                        .param("movieId", firstMovieId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(itemId));
+
+        // the insert goes through JDBC; the only Hibernate statement is the projection
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(1, watchlistRepository.count());
+    }
+
+    @Test
+    void testAdd_UnknownUserOrMovie_Returns404() throws Exception {
+        mockMvc.perform(post("/api/v1/users/{userId}/watchlist", userId)
+                        .with(csrf())
+                        .param("movieId", "999999"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Movie not found: 999999"));
+
+        mockMvc.perform(post("/api/v1/users/{userId}/watchlist", 999999)
+                        .with(csrf())
+                        .param("movieId", firstMovieId.toString()))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("User not found: 999999"));
+
+        assertEquals(0, watchlistRepository.count());
+    }
+
+    @Test
+    void testAdd_ConcurrentAddsOfTheSameMovieAllSucceed() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<WatchlistService.AddResult>> adds = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                adds.add(() -> watchlistService.addToWatchlist(userId, secondMovieId));
+            }
+            Set<Long> itemIds = new HashSet<>();
+            int inserted = 0;
+            for (Future<WatchlistService.AddResult> added : executor.invokeAll(adds)) {
+                itemIds.add(added.get().item().getId());
+                inserted += added.get().inserted() ? 1 : 0;
+            }
+            assertEquals(1, itemIds.size());
+            assertEquals(1, inserted);
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, watchlistRepository.count());
+    }
+
+    @Test
+    void testBulkUpdate_ConcurrentAddsReportTheMovieAddedOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        long added = 0;
+        try {
+            List<Callable<WatchlistBulkResponse>> adds = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                adds.add(() -> watchlistService.bulkUpdate(userId, List.of(secondMovieId, thirdMovieId), List.of()));
+            }
+            for (Future<WatchlistBulkResponse> response : executor.invokeAll(adds)) {
+                added += response.get().getAdded();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(2, added);
+        assertEquals(2, watchlistRepository.count());
+    }
+
+    @Test
+    void testBulkUpdate_ReportsAnOutcomePerMovie() throws Exception {
+        mockMvc.perform(post("/api/v1/users/{userId}/watchlist", userId)
+                        .with(csrf())
+                        .param("movieId", firstMovieId.toString()))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/v1/users/{userId}/watchlist/bulk", userId)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format("""
+                                { "add": [%d, %d, %d, 999999], "remove": [%d] }
+                                """, firstMovieId, secondMovieId, secondMovieId, 999998)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.added").value(1))
+                .andExpect(jsonPath("$.removed").value(0))
+                .andExpect(jsonPath("$.results.length()").value(4))
+                .andExpect(jsonPath("$.results[0].movieId").value(firstMovieId))
+                .andExpect(jsonPath("$.results[0].status").value("ALREADY_ON_WATCHLIST"))
+                .andExpect(jsonPath("$.results[1].movieId").value(secondMovieId))
+                .andExpect(jsonPath("$.results[1].status").value("ADDED"))
+                .andExpect(jsonPath("$.results[2].status").value("MOVIE_NOT_FOUND"))
+                .andExpect(jsonPath("$.results[3].status").value("NOT_ON_WATCHLIST"));
+
+        mockMvc.perform(post("/api/v1/users/{userId}/watchlist/bulk", userId)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format("""
+                                { "add": [%d], "remove": [%d, %d] }
+                                """, thirdMovieId, firstMovieId, secondMovieId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.added").value(1))
+                .andExpect(jsonPath("$.removed").value(2))
+                .andExpect(jsonPath("$.results[1].status").value("REMOVED"))
+                .andExpect(jsonPath("$.results[2].status").value("REMOVED"));
+
+        List<Long> watchlisted = watchlistRepository.findAll().stream()
+                .map(item -> item.getMovie().getId())
+                .toList();
+        assertEquals(List.of(thirdMovieId), watchlisted);
+
+        mockMvc.perform(get("/api/v1/users/{userId}/watchlist", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].movieId").value(thirdMovieId))
+                .andExpect(jsonPath("$.content[0].addedAt").isNotEmpty());
+    }
+
+    @Test
+    void testList_SelectsResponsesWithoutLoadingUsersOrMovies() throws Exception {
+        mockMvc.perform(post("/api/v1/users/{userId}/watchlist/bulk", userId)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format("""
+                                { "add": [%d, %d, %d] }
+                                """, firstMovieId, secondMovieId, thirdMovieId)))
+                .andExpect(status().isOk());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/v1/users/{userId}/watchlist", userId)
+                        .param("sort", "addedAt,desc")
+                        .param("sort", "id,desc")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].movieId").value(thirdMovieId))
+                .andExpect(jsonPath("$.content[0].title").value("Alien 3"))
+                .andExpect(jsonPath("$.totalElements").value(3));
+
+        // user check + page query + count query, and no entity is ever hydrated
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+
+        statistics.clear();
+        mockMvc.perform(get("/api/v1/users/{userId}/watchlist", userId)
+                        .param("withTotal", "false")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.hasNext").value(true));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testBulkUpdate_InvalidRequests() throws Exception {
+        mockMvc.perform(post("/api/v1/users/{userId}/watchlist/bulk", userId)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format("""
+                                { "add": [%d], "remove": [%d] }
+                                """, firstMovieId, firstMovieId)))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/v1/users/{userId}/watchlist/bulk", 999999)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format("""
+                                { "add": [%d] }
+                                """, firstMovieId)))
+                .andExpect(status().isNotFound());
+
+        assertTrue(watchlistRepository.findAll().isEmpty());
+    }
+
+    private Long saveMovie(String title) {
+        Movie movie = new Movie();
+        movie.setTitle(title);
+        movie.setYear(1986);
+        movie.setGenres(List.of("Sci-Fi"));
+        return movieRepository.save(movie).getId();
+    }
+}
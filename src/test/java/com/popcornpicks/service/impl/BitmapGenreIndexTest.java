@@ -0,0 +1,65 @@
+package com.popcornpicks.service.impl;
+
+import com.popcornpicks.dto.MovieFilter;
+import com.popcornpicks.events.MovieChangedEvent;
+import com.popcornpicks.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class BitmapGenreIndexTest {
+
+    private BitmapGenreIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BitmapGenreIndex(mock(MovieRepository.class));
+        changed(MovieChangedEvent.Type.CREATED, 1L, "Drama", "Crime");
+        changed(MovieChangedEvent.Type.CREATED, 2L, "Drama");
+        changed(MovieChangedEvent.Type.CREATED, 3L, "Comedy", "Crime");
+        changed(MovieChangedEvent.Type.CREATED, 40L, "Drama", "Crime");
+    }
+
+    @Test
+    void testFind_AnyIsUnionInIdOrder() {
+        Page<Long> page = index.find(List.of("Comedy", "Drama"), MovieFilter.GenreMatch.ANY, PageRequest.of(0, 10));
+
+        assertEquals(List.of(1L, 2L, 3L, 40L), page.getContent());
+    }
+
+    @Test
+    void testFind_AllIsIntersection() {
+        Page<Long> page = index.find(List.of("Drama", "Crime"), MovieFilter.GenreMatch.ALL, PageRequest.of(0, 10));
+
+        assertEquals(List.of(1L, 40L), page.getContent());
+        assertTrue(index.find(List.of("Drama", "Western"), MovieFilter.GenreMatch.ALL, PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void testFind_PagesWithTotal() {
+        Page<Long> page = index.find(List.of("Drama"), MovieFilter.GenreMatch.ANY, PageRequest.of(1, 2));
+
+        assertEquals(3, page.getTotalElements());
+        assertEquals(List.of(40L), page.getContent());
+    }
+
+    @Test
+    void testOnMovieChanged_MovesAndRemovesMovies() {
+        changed(MovieChangedEvent.Type.UPDATED, 2L, "Comedy");
+        changed(MovieChangedEvent.Type.DELETED, 40L);
+
+        assertEquals(Map.of("Comedy", 2, "Crime", 2, "Drama", 1), index.counts());
+        assertEquals(List.of("Comedy", "Crime", "Drama"), List.copyOf(index.counts().keySet()));
+    }
+
+    private void changed(MovieChangedEvent.Type type, Long id, String... genres) {
+        index.onMovieChanged(new MovieChangedEvent(type, id, "Movie " + id, 2000, List.of(genres), 0, 0));
+    }
+}
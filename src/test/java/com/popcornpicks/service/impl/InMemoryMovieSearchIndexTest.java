@@ -0,0 +1,100 @@
+package com.popcornpicks.service.impl;
+
+import com.popcornpicks.events.MovieChangedEvent;
+import com.popcornpicks.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class InMemoryMovieSearchIndexTest {
+
+    private InMemoryMovieSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InMemoryMovieSearchIndex(mock(MovieRepository.class));
+        created(1L, "The Matrix");
+        created(2L, "The Matrix Reloaded");
+        created(3L, "Matrimony");
+        created(4L, "The Godfather");
+    }
+
+    @Test
+    void testSearch_RanksWholeWordsAbovePrefixesAndShorterTitlesFirst() {
+        Page<Long> page = index.search("MATRIX", PageRequest.of(0, 10));
+
+        assertEquals(List.of(1L, 2L), page.getContent());
+    }
+
+    @Test
+    void testSearch_MatchesPrefixes() {
+        assertEquals(List.of(3L, 1L, 2L), index.search("matr", PageRequest.of(0, 10)).getContent());
+    }
+
+    @Test
+    void testSearch_RequiresEveryToken() {
+        assertEquals(List.of(2L), index.search("the matrix rel", PageRequest.of(0, 10)).getContent());
+        assertTrue(index.search("matrix godfather", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void testSearch_Pages() {
+        Page<Long> page = index.search("the", PageRequest.of(1, 2));
+
+        assertEquals(3, page.getTotalElements());
+        assertEquals(List.of(2L), page.getContent());
+    }
+
+    @Test
+    void testSearchFuzzy_ToleratesTyposByTokenLength() {
+        assertTrue(index.search("godfater", PageRequest.of(0, 10)).isEmpty());
+
+        assertEquals(List.of(4L), index.searchFuzzy("godfater", PageRequest.of(0, 10)).getContent());
+        assertEquals(List.of(4L), index.searchFuzzy("the godfahter", PageRequest.of(0, 10)).getContent());
+        // two edits are too many for a five-letter token
+        assertTrue(index.searchFuzzy("mtarx", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void testSearchFuzzy_RanksExactAndPrefixMatchesAboveTypos() {
+        created(5L, "Matrox");
+
+        assertEquals(List.of(1L, 2L, 5L), index.searchFuzzy("matrix", PageRequest.of(0, 10)).getContent());
+        assertEquals(List.of(3L, 1L, 2L), index.searchFuzzy("matri", PageRequest.of(0, 10)).getContent());
+    }
+
+    @Test
+    void testSearchFuzzy_ForgetsRemovedTokens() {
+        index.onMovieChanged(event(MovieChangedEvent.Type.DELETED, 4L, "The Godfather"));
+
+        assertTrue(index.searchFuzzy("godfater", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void testOnMovieChanged_UpdatesAndRemovesTitles() {
+        index.onMovieChanged(event(MovieChangedEvent.Type.UPDATED, 1L, "The Matrix Resurrections"));
+        index.onMovieChanged(event(MovieChangedEvent.Type.DELETED, 2L, "The Matrix Reloaded"));
+
+        assertEquals(List.of(1L), index.search("resurrections", PageRequest.of(0, 10)).getContent());
+        assertTrue(index.search("reloaded", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void testSearch_BlankQueryIsEmpty() {
+        assertTrue(index.search("  --  ", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    private void created(Long id, String title) {
+        index.onMovieChanged(event(MovieChangedEvent.Type.CREATED, id, title));
+    }
+
+    private static MovieChangedEvent event(MovieChangedEvent.Type type, Long id, String title) {
+        return new MovieChangedEvent(type, id, title, 2000, List.of(), 0, 0);
+    }
+}
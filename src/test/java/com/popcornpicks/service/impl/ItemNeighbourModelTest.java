@@ -0,0 +1,68 @@
+package com.popcornpicks.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemNeighbourModelTest {
+
+    // 1 is close to 2 and 3, 4 is close to 3 and 5
+    private final ItemNeighbourModel model = ItemNeighbourModel.builder()
+            .add(1, 2, 0.9f).add(1, 3, 0.5f)
+            .add(4, 3, 0.8f).add(4, 5, 0.6f)
+            .build();
+
+    @Test
+    void testRecommend_SumsWeightedSimilaritiesAndSkipsKnownMovies() {
+        long[] movies = new long[3];
+        float[] scores = new float[3];
+
+        int found = model.recommend(new long[]{1, 4}, new float[]{1f, 1f}, 3,
+                new ItemNeighbourModel.Scratch(model), movies, scores, 0);
+
+        assertEquals(3, found);
+        assertArrayEquals(new long[]{3, 2, 5}, movies);
+        assertEquals(1.3f, scores[0], 1e-6);
+        assertEquals(0.9f, scores[1], 1e-6);
+    }
+
+    @Test
+    void testRecommend_DislikedMoviesPushTheirNeighboursDown() {
+        long[] movies = new long[3];
+        float[] scores = new float[3];
+        ItemNeighbourModel.Scratch scratch = new ItemNeighbourModel.Scratch(model);
+
+        // 3 is watchlisted, so never recommended; disliking 4 sinks 5 below zero
+        int found = model.recommend(new long[]{1, 3, 4}, new float[]{1f, 0.5f, -1f}, 3, scratch, movies, scores, 0);
+
+        assertEquals(1, found);
+        assertEquals(2, movies[0]);
+
+        // the scratch was reset, so the next user starts from zero
+        found = model.recommend(new long[]{4}, new float[]{1f}, 3, scratch, movies, scores, 0);
+        assertEquals(2, found);
+        assertEquals(3, movies[0]);
+        assertEquals(0.8f, scores[0], 1e-6);
+    }
+
+    @Test
+    void testRecommend_KeepsTopNAtTheOffset() {
+        long[] movies = new long[4];
+        float[] scores = new float[4];
+
+        int found = model.recommend(new long[]{1}, new float[]{1f}, 1,
+                new ItemNeighbourModel.Scratch(model), movies, scores, 2);
+
+        assertEquals(1, found);
+        assertArrayEquals(new long[]{0, 0, 2, 0}, movies);
+    }
+
+    @Test
+    void testRecommend_UnknownMoviesScoreNothing() {
+        long[] movies = new long[3];
+        float[] scores = new float[3];
+
+        assertEquals(0, model.recommend(new long[]{42}, new float[]{1f}, 3,
+                new ItemNeighbourModel.Scratch(model), movies, scores, 0));
+    }
+}
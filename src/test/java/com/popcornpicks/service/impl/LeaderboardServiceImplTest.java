@@ -0,0 +1,154 @@
+package com.popcornpicks.service.impl;
+
+import com.popcornpicks.dto.LeaderboardEntryResponse;
+import com.popcornpicks.events.MovieChangedEvent;
+import com.popcornpicks.events.RatingChangedEvent;
+import com.popcornpicks.models.RatingDelta;
+import com.popcornpicks.repository.MovieGenre;
+import com.popcornpicks.repository.MovieRepository;
+import com.popcornpicks.repository.MovieSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LeaderboardServiceImplTest {
+
+    private MovieRepository movieRepository;
+    private LeaderboardServiceImpl leaderboard;
+
+    @BeforeEach
+    void setUp() {
+        movieRepository = mock(MovieRepository.class);
+        leaderboard = new LeaderboardServiceImpl(movieRepository, 10);
+
+        // site-wide mean is (5 + 4800 + 300) / (1 + 1000 + 100) ~= 4.64
+        when(movieRepository.findAllSummaries()).thenReturn(List.of(
+                summary(1L, "One Hit Wonder", 5, 1),
+                summary(2L, "Classic", 4800, 1000),
+                summary(3L, "Okay Drama", 300, 100),
+                summary(4L, "Unrated", 0, 0)
+        ));
+        when(movieRepository.findAllGenres()).thenReturn(List.of(
+                genre(1L, "Action"),
+                genre(2L, "Drama"),
+                genre(3L, "Drama"),
+                genre(4L, "Drama")
+        ));
+        leaderboard.rebuild();
+    }
+
+    @Test
+    void testGetTopMovies_WeightsAverageByReviewCount() {
+        Page<LeaderboardEntryResponse> page = leaderboard.getTopMovies(null, PageRequest.of(0, 10));
+
+        assertEquals(3, page.getTotalElements());
+        assertEquals(List.of(2L, 1L, 3L), page.getContent().stream().map(LeaderboardEntryResponse::getMovieId).toList());
+        assertEquals(1, page.getContent().get(0).getRank());
+        assertEquals(5.0, page.getContent().get(1).getAverageRating());
+    }
+
+    @Test
+    void testGetTopMovies_ByGenreIgnoresCaseAndPages() {
+        Page<LeaderboardEntryResponse> page = leaderboard.getTopMovies("drama", PageRequest.of(1, 1));
+
+        assertEquals(2, page.getTotalElements());
+        assertEquals(1, page.getContent().size());
+        assertEquals(3L, page.getContent().get(0).getMovieId());
+        assertEquals(2, page.getContent().get(0).getRank());
+    }
+
+    @Test
+    void testGetTopMovies_UnknownGenreIsEmpty() {
+        assertTrue(leaderboard.getTopMovies("Western", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void testOnRatingChanged_MovesEntryAndRanksNewlyRatedMovies() {
+        for (int i = 0; i < 100; i++) {
+            leaderboard.onRatingChanged(new RatingChangedEvent(4L, RatingDelta.added(5)));
+        }
+
+        Page<LeaderboardEntryResponse> page = leaderboard.getTopMovies("Drama", PageRequest.of(0, 10));
+        assertEquals(List.of(4L, 2L, 3L), page.getContent().stream().map(LeaderboardEntryResponse::getMovieId).toList());
+        assertEquals(100, page.getContent().get(0).getRatingCount());
+        verify(movieRepository, never()).findSummariesByIdIn(anyCollection());
+    }
+
+    @Test
+    void testOnMovieChanged_DeleteRemovesFromEveryRanking() {
+        leaderboard.onMovieChanged(new MovieChangedEvent(
+                MovieChangedEvent.Type.DELETED, 2L, "Classic", 1972, List.of("Drama"), 4800, 1000));
+
+        assertEquals(2, leaderboard.getTopMovies(null, PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(1, leaderboard.getTopMovies("Drama", PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    void testRebuild_ReplaysChangesThatArriveWhileReading() {
+        when(movieRepository.findAllSummaries()).thenAnswer(invocation -> {
+            // committed after the read below, so the rebuilt board must still see it
+            List<MovieSummary> read = List.of(summary(3L, "Okay Drama", 300, 100), summary(4L, "Unrated", 0, 0));
+            leaderboard.onRatingChanged(new RatingChangedEvent(4L, RatingDelta.added(5)));
+            leaderboard.onMovieChanged(new MovieChangedEvent(
+                    MovieChangedEvent.Type.DELETED, 3L, "Okay Drama", 1990, List.of("Drama"), 300, 100));
+            return read;
+        });
+
+        leaderboard.rebuild();
+
+        Page<LeaderboardEntryResponse> page = leaderboard.getTopMovies(null, PageRequest.of(0, 10));
+        assertEquals(List.of(4L), page.getContent().stream().map(LeaderboardEntryResponse::getMovieId).toList());
+        assertEquals(1, page.getContent().get(0).getRatingCount());
+
+        leaderboard.onRatingChanged(new RatingChangedEvent(4L, RatingDelta.added(3)));
+        assertEquals(2, leaderboard.getTopMovies(null, PageRequest.of(0, 10)).getContent().get(0).getRatingCount());
+    }
+
+    @Test
+    void testGetTopMovies_DeepPagesFollowChanges() {
+        List<MovieSummary> summaries = new ArrayList<>();
+        for (long id = 1; id <= 1500; id++) {
+            summaries.add(summary(id, "Movie " + id, 3000 - id, 1000));
+        }
+        when(movieRepository.findAllSummaries()).thenReturn(summaries);
+        when(movieRepository.findAllGenres()).thenReturn(List.of());
+        leaderboard.rebuild();
+
+        Page<LeaderboardEntryResponse> page = leaderboard.getTopMovies(null, PageRequest.of(120, 10));
+        assertEquals(1500, page.getTotalElements());
+        assertEquals(1201L, page.getContent().get(0).getMovieId());
+        assertEquals(1201, page.getContent().get(0).getRank());
+
+        // movie 1 drops to the bottom, shifting everyone after it up by one
+        leaderboard.onRatingChanged(new RatingChangedEvent(1L, new RatingDelta(-2999, 0, 0, 0, 0, 0, 0)));
+        page = leaderboard.getTopMovies(null, PageRequest.of(120, 10));
+        assertEquals(1202L, page.getContent().get(0).getMovieId());
+        assertEquals(List.of(1L), leaderboard.getTopMovies(null, PageRequest.of(1499, 1)).getContent().stream()
+                .map(LeaderboardEntryResponse::getMovieId).toList());
+        assertTrue(leaderboard.getTopMovies(null, PageRequest.of(150, 10)).getContent().isEmpty());
+    }
+
+    private static MovieSummary summary(Long id, String title, long ratingSum, long ratingCount) {
+        return new MovieSummary() {
+            public Long getId() { return id; }
+            public String getTitle() { return title; }
+            public int getYear() { return 2000; }
+            public long getRatingSum() { return ratingSum; }
+            public long getRatingCount() { return ratingCount; }
+        };
+    }
+
+    private static MovieGenre genre(Long movieId, String genre) {
+        return new MovieGenre() {
+            public Long getMovieId() { return movieId; }
+            public String getGenre() { return genre; }
+        };
+    }
+}
@@ -1,29 +1,44 @@
 package com.popcornpicks.service.impl;
 
+import com.popcornpicks.dto.MovieFilter;
 import com.popcornpicks.models.Movie;
 import com.popcornpicks.repository.MovieRepository;
+import com.popcornpicks.service.GenreIndex;
+import com.popcornpicks.service.MovieSearchIndex;
 import com.popcornpicks.exceptions.ResourceNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class MovieServiceImplTest {
 
     private MovieRepository movieRepository;
+    private MovieSearchIndex movieSearchIndex;
+    private GenreIndex genreIndex;
+    private ApplicationEventPublisher eventPublisher;
     private MovieServiceImpl movieService;
 
     @BeforeEach
     void setUp() {
         movieRepository = mock(MovieRepository.class);
-        movieService = new MovieServiceImpl(movieRepository);
+        movieSearchIndex = mock(MovieSearchIndex.class);
+        genreIndex = mock(GenreIndex.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        movieService = new MovieServiceImpl(movieRepository, movieSearchIndex, genreIndex, eventPublisher);
     }
 
     @Test
@@ -48,20 +63,48 @@ class MovieServiceImplTest {
     void testSearchByTitle_ReturnsMatchingMovies() {
 
         String searchTerm = "matrix";
-        Movie movie = new Movie();
-        movie.setTitle("The Matrix");
-        List<Movie> movies = List.of(movie);
+        Movie matrix = new Movie();
+        matrix.setId(1L);
+        matrix.setTitle("The Matrix");
+        Movie reloaded = new Movie();
+        reloaded.setId(2L);
+        reloaded.setTitle("The Matrix Reloaded");
         Pageable pageable = Pageable.unpaged();
-        when(movieRepository.findByTitleContainingIgnoreCase(searchTerm, pageable))
-                .thenReturn(new PageImpl<>(movies));
+        when(movieSearchIndex.search(searchTerm, pageable))
+                .thenReturn(new PageImpl<>(List.of(2L, 1L)));
+        when(movieRepository.findAllById(List.of(2L, 1L)))
+                .thenReturn(List.of(matrix, reloaded));
 
 
         var result = movieService.searchByTitle(searchTerm, pageable);
 
 
-        assertEquals(1, result.getTotalElements());
-        assertEquals("The Matrix", result.getContent().get(0).getTitle());
-        verify(movieRepository, times(1)).findByTitleContainingIgnoreCase(searchTerm, pageable);
+        assertEquals(2, result.getTotalElements());
+        assertEquals("The Matrix Reloaded", result.getContent().get(0).getTitle());
+        assertEquals("The Matrix", result.getContent().get(1).getTitle());
+        verify(movieSearchIndex, times(1)).search(searchTerm, pageable);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSearch_RunsOneSpecificationQuery() {
+
+        MovieFilter filter = new MovieFilter();
+        filter.setGenres(List.of("Drama"));
+        filter.setYearFrom(2019);
+        Movie movie = new Movie();
+        movie.setTitle("Parasite");
+        Pageable pageable = Pageable.unpaged();
+        when(movieRepository.findAll(any(Specification.class), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(movie)));
+
+
+        var result = movieService.search(filter, pageable);
+
+
+        assertEquals("Parasite", result.getContent().get(0).getTitle());
+        verify(movieRepository, times(1)).findAll(any(Specification.class), eq(pageable));
+        verifyNoInteractions(movieSearchIndex);
     }
 
     @Test
@@ -69,12 +112,14 @@ class MovieServiceImplTest {
 
         String genre = "Action";
         Movie movie = new Movie();
+        movie.setId(7L);
         movie.setTitle("Mad Max");
         movie.setGenres(List.of("Action"));
-        List<Movie> movies = List.of(movie);
         Pageable pageable = Pageable.unpaged();
-        when(movieRepository.findByGenresContaining(genre, pageable))
-                .thenReturn(new PageImpl<>(movies));
+        when(genreIndex.find(List.of(genre), MovieFilter.GenreMatch.ANY, pageable))
+                .thenReturn(new PageImpl<>(List.of(7L)));
+        when(movieRepository.findAllById(List.of(7L)))
+                .thenReturn(List.of(movie));
 
 
         var result = movieService.filterByGenre(genre, pageable);
@@ -82,7 +127,24 @@ class MovieServiceImplTest {
 
         assertEquals(1, result.getTotalElements());
         assertEquals("Mad Max", result.getContent().get(0).getTitle());
-        verify(movieRepository, times(1)).findByGenresContaining(genre, pageable);
+        verify(genreIndex, times(1)).find(List.of(genre), MovieFilter.GenreMatch.ANY, pageable);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSearch_SortedGenreFilterGoesToTheDatabase() {
+
+        MovieFilter filter = new MovieFilter();
+        filter.setGenres(List.of("Action"));
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("title"));
+        when(movieRepository.findAll(any(Specification.class), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of()));
+
+
+        movieService.search(filter, pageable);
+
+
+        verifyNoInteractions(genreIndex);
     }
 
     @Test
@@ -179,7 +241,7 @@ class MovieServiceImplTest {
         updatedMovie.setPosterPath("new.jpg");
         updatedMovie.setGenres(List.of("Sci-Fi"));
 
-        when(movieRepository.findById(movieId)).thenReturn(Optional.of(existingMovie));
+        when(movieRepository.findForUpdateById(movieId)).thenReturn(Optional.of(existingMovie));
         when(movieRepository.save(existingMovie)).thenReturn(existingMovie);
 
 
@@ -188,11 +250,12 @@ class MovieServiceImplTest {
 
         assertEquals("New Title", result.getTitle());
         assertEquals(2024, result.getYear());
+        assertEquals(1, result.getVersion());
         assertEquals("new.jpg", result.getPosterPath());
         assertEquals(List.of("Sci-Fi"), result.getGenres());
         assertEquals(4.2, result.getAverageRating()); // stays the same
 
-        verify(movieRepository, times(1)).findById(movieId);
+        verify(movieRepository, times(1)).findForUpdateById(movieId);
         verify(movieRepository, times(1)).save(existingMovie);
     }
 
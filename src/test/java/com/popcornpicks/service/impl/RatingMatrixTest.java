@@ -0,0 +1,80 @@
+package com.popcornpicks.service.impl;
+
+import com.popcornpicks.service.impl.RatingMatrix.Measure;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RatingMatrixTest {
+
+    @Test
+    void testNeighbours_CosineRanksBySimilarityAndKeepsTopK() {
+        // movie 10 and 20 are rated identically, 30 is close, 40 is rated by one shared user only
+        RatingMatrix matrix = RatingMatrix.builder(Measure.COSINE)
+                .add(10, 1, 5).add(10, 2, 3).add(10, 3, 4)
+                .add(20, 1, 5).add(20, 2, 3).add(20, 3, 4)
+                .add(30, 1, 4).add(30, 2, 4).add(30, 3, 4)
+                .add(40, 1, 5).add(40, 9, 5)
+                .build();
+
+        int[] movies = new int[2];
+        float[] similarities = new float[2];
+        int found = matrix.neighbours(matrix.indexOf(10), 2, 2, new RatingMatrix.Scratch(matrix), movies, similarities);
+
+        assertEquals(2, found);
+        assertEquals(20, matrix.movieId(movies[0]));
+        assertEquals(1.0f, similarities[0], 1e-6);
+        assertEquals(30, matrix.movieId(movies[1]));
+        assertTrue(similarities[1] < 1.0f);
+
+        found = matrix.neighbours(matrix.indexOf(10), 1, 2, new RatingMatrix.Scratch(matrix), movies, similarities);
+        assertEquals(1, found);
+        assertEquals(20, matrix.movieId(movies[0]));
+    }
+
+    @Test
+    void testNeighbours_AdjustedCosineDropsOppositeTaste() {
+        RatingMatrix matrix = RatingMatrix.builder(Measure.ADJUSTED_COSINE)
+                .add(1, 100, 5).add(1, 200, 5).add(1, 300, 1).add(1, 400, 1)
+                .add(2, 100, 5).add(2, 200, 4).add(2, 300, 1).add(2, 400, 2)
+                .add(3, 100, 1).add(3, 200, 1).add(3, 300, 5).add(3, 400, 5)
+                .build();
+
+        RatingMatrix.Scratch scratch = new RatingMatrix.Scratch(matrix);
+        int[] movies = new int[5];
+        float[] similarities = new float[5];
+
+        assertEquals(1, matrix.neighbours(matrix.indexOf(1), 5, 3, scratch, movies, similarities));
+        assertEquals(2, matrix.movieId(movies[0]));
+        // the scratch arrays are reset, so a second movie sees only its own sums
+        assertEquals(1, matrix.neighbours(matrix.indexOf(2), 5, 3, scratch, movies, similarities));
+        assertEquals(1, matrix.movieId(movies[0]));
+        assertEquals(0, matrix.neighbours(matrix.indexOf(3), 5, 3, scratch, movies, similarities));
+    }
+
+    @Test
+    void testExpandToCoRated_MarksMoviesSharingARater() {
+        RatingMatrix matrix = RatingMatrix.builder(Measure.COSINE)
+                .add(1, 100, 5)
+                .add(2, 100, 3).add(2, 200, 4)
+                .add(3, 200, 2)
+                .add(4, 300, 1)
+                .build();
+
+        boolean[] marked = new boolean[matrix.movieCount()];
+        marked[matrix.indexOf(1)] = true;
+        boolean[] affected = matrix.expandToCoRated(marked);
+
+        assertTrue(affected[matrix.indexOf(1)]);
+        assertTrue(affected[matrix.indexOf(2)]);
+        assertFalse(affected[matrix.indexOf(3)]);
+        assertFalse(affected[matrix.indexOf(4)]);
+        assertTrue(matrix.indexOf(5) < 0);
+    }
+
+    @Test
+    void testBuilder_RejectsUnsortedMovies() {
+        RatingMatrix.Builder builder = RatingMatrix.builder(Measure.COSINE).add(2, 1, 5);
+        assertThrows(IllegalStateException.class, () -> builder.add(1, 1, 5));
+    }
+}
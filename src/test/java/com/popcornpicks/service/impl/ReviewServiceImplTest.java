@@ -1,22 +1,31 @@
 package com.popcornpicks.service.impl;
 
+import com.popcornpicks.dto.ReviewResponse;
+import com.popcornpicks.events.RatingsRecomputedEvent;
 import com.popcornpicks.exceptions.ResourceNotFoundException;
 import com.popcornpicks.models.Movie;
+import com.popcornpicks.models.RatingDelta;
 import com.popcornpicks.models.Review;
 import com.popcornpicks.models.User;
 import com.popcornpicks.repository.MovieRepository;
 import com.popcornpicks.repository.ReviewRepository;
 import com.popcornpicks.repository.UserRepository;
+import com.popcornpicks.service.RatingAggregator;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 import com.popcornpicks.exceptions.DuplicateReviewException;
@@ -37,6 +46,12 @@ class ReviewServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private RatingAggregator ratingAggregator;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ReviewServiceImpl reviewService;
 
@@ -68,9 +83,9 @@ class ReviewServiceImplTest {
 
     @Test
     void testCreateReview_Success() {
-        when(movieRepository.findById(MOVIE_ID)).thenReturn(Optional.of(movie));
-        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
-        when(reviewRepository.save(any(Review.class))).thenAnswer(inv -> {
+        when(movieRepository.getReferenceById(MOVIE_ID)).thenReturn(movie);
+        when(userRepository.getReferenceById(USER_ID)).thenReturn(user);
+        when(reviewRepository.saveAndFlush(any(Review.class))).thenAnswer(inv -> {
             Review r = inv.getArgument(0);
             r.setId(REVIEW_ID);
             return r;
@@ -81,15 +96,16 @@ class ReviewServiceImplTest {
         assertNotNull(saved.getId());
         assertEquals(5, saved.getRating());
         assertEquals("Awesome", saved.getComment());
-        verify(reviewRepository).save(any(Review.class));
+        verify(reviewRepository).saveAndFlush(any(Review.class));
+        verify(userRepository, never()).findById(any());
+        verify(movieRepository, never()).findById(any());
+        verify(reviewRepository, never()).findByUserIdAndMovieId(any(), any());
+        verify(ratingAggregator).record(MOVIE_ID, RatingDelta.added(5));
     }
 
     @Test
     void testCreateReview_MovieNotFound() {
-
-        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
-
-        when(movieRepository.findById(MOVIE_ID)).thenReturn(Optional.empty());
+        when(reviewRepository.saveAndFlush(any(Review.class))).thenThrow(constraintViolation("FK_REVIEWS_MOVIE"));
 
 
         ResourceNotFoundException ex = assertThrows(
@@ -142,18 +158,12 @@ class ReviewServiceImplTest {
         when(reviewRepository.findById(REVIEW_ID))
                 .thenReturn(Optional.of(existingReview));
 
-        when(reviewRepository.findByMovieId(MOVIE_ID))
-                .thenReturn(List.of(existingReview));
-        when(movieRepository.findById(MOVIE_ID))
-                .thenReturn(Optional.of(movie));
-        when(movieRepository.save(movie))
-                .thenReturn(movie);
-
 
         assertDoesNotThrow(() -> reviewService.deleteReview(REVIEW_ID));
 
         verify(reviewRepository).delete(existingReview);
-        verify(movieRepository).save(movie);
+        verify(ratingAggregator).record(MOVIE_ID, RatingDelta.removed(4));
+        verify(reviewRepository, never()).findAll();
     }
 
     @Test
@@ -185,7 +195,7 @@ class ReviewServiceImplTest {
 
     @Test
     void testCreateReview_UserNotFound() {
-        when(userRepository.findById(USER_ID)).thenReturn(Optional.empty());
+        when(reviewRepository.saveAndFlush(any(Review.class))).thenThrow(constraintViolation("fk_reviews_user"));
 
         ResourceNotFoundException ex = assertThrows(
                 ResourceNotFoundException.class,
@@ -196,16 +206,23 @@ class ReviewServiceImplTest {
 
     @Test
     void testCreateReview_DuplicateReview() {
-        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
-        when(movieRepository.findById(MOVIE_ID)).thenReturn(Optional.of(movie));
-        when(reviewRepository.findByUserIdAndMovieId(USER_ID, MOVIE_ID))
-                .thenReturn(Optional.of(existingReview));
+        when(reviewRepository.saveAndFlush(any(Review.class))).thenThrow(constraintViolation("uk_user_movie_review"));
 
         DuplicateReviewException ex = assertThrows(
                 DuplicateReviewException.class,
                 () -> reviewService.createReview(USER_ID, MOVIE_ID, 4, "Dup")
         );
         assertTrue(ex.getMessage().contains("Review already exists for user " + USER_ID));
+        verifyNoInteractions(ratingAggregator);
+    }
+
+    @Test
+    void testCreateReview_OtherIntegrityViolationIsRethrown() {
+        DataIntegrityViolationException violation = constraintViolation("ck_something_else");
+        when(reviewRepository.saveAndFlush(any(Review.class))).thenThrow(violation);
+
+        assertSame(violation, assertThrows(DataIntegrityViolationException.class,
+                () -> reviewService.createReview(USER_ID, MOVIE_ID, 4, "Dup")));
     }
 
 
@@ -217,19 +234,35 @@ class ReviewServiceImplTest {
         when(reviewRepository.save(existingReview))
                 .thenReturn(existingReview);
 
-        when(reviewRepository.findByMovieId(MOVIE_ID))
-                .thenReturn(List.of(existingReview));
-        when(movieRepository.findById(MOVIE_ID))
-                .thenReturn(Optional.of(movie));
-        when(movieRepository.save(movie))
-                .thenReturn(movie);
-
         Review updated = reviewService.updateReview(REVIEW_ID, 2, "So-so");
 
         assertEquals(2, updated.getRating());
         assertEquals("So-so", updated.getComment());
         verify(reviewRepository).save(existingReview);
-        verify(movieRepository).save(movie);
+        verify(ratingAggregator).record(MOVIE_ID, RatingDelta.changed(4, 2));
+    }
+
+    @Test
+    void testUpdateReview_SameRating_SkipsAggregateUpdate() {
+        when(reviewRepository.findById(REVIEW_ID))
+                .thenReturn(Optional.of(existingReview));
+        when(reviewRepository.save(existingReview))
+                .thenReturn(existingReview);
+
+        reviewService.updateReview(REVIEW_ID, 4, "Still great");
+
+        verify(ratingAggregator, never()).record(anyLong(), any(RatingDelta.class));
+    }
+
+    @Test
+    void testReconcileRatingAggregates_DelegatesToRepository() {
+        when(movieRepository.recomputeAllRatingAggregates()).thenReturn(7);
+
+        assertEquals(7, reviewService.reconcileRatingAggregates());
+        InOrder inOrder = inOrder(ratingAggregator, movieRepository);
+        inOrder.verify(ratingAggregator).flush();
+        inOrder.verify(movieRepository).recomputeAllRatingAggregates();
+        verify(eventPublisher).publishEvent(RatingsRecomputedEvent.all());
     }
 
     @Test
@@ -262,13 +295,13 @@ class ReviewServiceImplTest {
     @Test
     void testGetReviewsByMovie_Success() {
         when(movieRepository.existsById(MOVIE_ID)).thenReturn(true);
-        Page<Review> page = new PageImpl<>(List.of(existingReview));
-        when(reviewRepository.findByMovieId(MOVIE_ID, Pageable.unpaged()))
+        Page<ReviewResponse> page = new PageImpl<>(List.of(existingResponse()));
+        when(reviewRepository.findResponsesByMovieId(MOVIE_ID, Pageable.unpaged()))
                 .thenReturn(page);
 
-        Page<Review> result = reviewService.getReviewsByMovie(MOVIE_ID, Pageable.unpaged());
+        Page<ReviewResponse> result = reviewService.getReviewsByMovie(MOVIE_ID, Pageable.unpaged());
         assertEquals(1, result.getTotalElements());
-        verify(reviewRepository).findByMovieId(MOVIE_ID, Pageable.unpaged());
+        verify(reviewRepository).findResponsesByMovieId(MOVIE_ID, Pageable.unpaged());
     }
 
 
@@ -287,15 +320,22 @@ class ReviewServiceImplTest {
     @Test
     void testGetReviewsByUser_Success() {
         when(userRepository.existsById(USER_ID)).thenReturn(true);
-        Page<Review> page = new PageImpl<>(List.of(existingReview));
-        when(reviewRepository.findByUserId(USER_ID, Pageable.unpaged()))
+        Page<ReviewResponse> page = new PageImpl<>(List.of(existingResponse()));
+        when(reviewRepository.findResponsesByUserId(USER_ID, Pageable.unpaged()))
                 .thenReturn(page);
 
-        Page<Review> result = reviewService.getReviewsByUser(USER_ID, Pageable.unpaged());
+        Page<ReviewResponse> result = reviewService.getReviewsByUser(USER_ID, Pageable.unpaged());
         assertEquals(1, result.getTotalElements());
-        verify(reviewRepository).findByUserId(USER_ID, Pageable.unpaged());
+        verify(reviewRepository).findResponsesByUserId(USER_ID, Pageable.unpaged());
     }
 
 
-}
+    private ReviewResponse existingResponse() {
+        return new ReviewResponse(REVIEW_ID, USER_ID, MOVIE_ID, 4, "Great!", null);
+    }
 
+    private static DataIntegrityViolationException constraintViolation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", new SQLException(), constraintName));
+    }
+}
@@ -0,0 +1,152 @@
+package com.popcornpicks.service.impl;
+
+import com.popcornpicks.dto.TrendingEntryResponse;
+import com.popcornpicks.events.MovieChangedEvent;
+import com.popcornpicks.events.ReviewCreatedEvent;
+import com.popcornpicks.events.WatchlistItemAddedEvent;
+import com.popcornpicks.repository.MovieRepository;
+import com.popcornpicks.repository.MovieSummary;
+import com.popcornpicks.service.TrendingService.Window;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class TrendingServiceImplTest {
+
+    private MutableClock clock;
+    private TrendingServiceImpl trending;
+
+    @BeforeEach
+    void setUp() {
+        MovieRepository movieRepository = mock(MovieRepository.class);
+        when(movieRepository.findSummariesByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().filter(id -> id != 404L).map(id -> summary(id, "Movie " + id)).toList();
+        });
+        clock = new MutableClock(Instant.parse("2026-03-02T10:15:00Z"));
+        trending = new TrendingServiceImpl(mock(JdbcTemplate.class), mock(PlatformTransactionManager.class),
+                movieRepository, clock);
+    }
+
+    @Test
+    void testGetTrending_RanksByReviewsPlusWatchlistAdds() {
+        review(1L, 2);
+        watchlist(1L, 1);
+        review(2L, 1);
+        watchlist(2L, 2);
+        review(3L, 4);
+
+        List<TrendingEntryResponse> top = trending.getTrending(Window.DAY, 10);
+
+        // 1 and 2 tie on score, the one with more reviews ranks first
+        assertEquals(List.of(3L, 1L, 2L), top.stream().map(TrendingEntryResponse::getMovieId).toList());
+        assertEquals(1, top.get(0).getRank());
+        assertEquals(2, top.get(1).getReviews());
+        assertEquals(1, top.get(1).getWatchlistAdds());
+        assertEquals(3, top.get(1).getScore());
+        assertEquals("Movie 2", top.get(2).getTitle());
+    }
+
+    @Test
+    void testGetTrending_LimitKeepsTheBusiest() {
+        for (long id = 1; id <= 20; id++) {
+            review(id, (int) id);
+        }
+
+        List<TrendingEntryResponse> top = trending.getTrending(Window.WEEK, 3);
+
+        assertEquals(List.of(20L, 19L, 18L), top.stream().map(TrendingEntryResponse::getMovieId).toList());
+    }
+
+    @Test
+    void testGetTrending_ActivityLeavesTheDayBeforeTheWeek() {
+        review(1L, 3);
+        clock.advance(Duration.ofHours(23));
+        review(2L, 1);
+        assertEquals(List.of(1L, 2L), ids(Window.DAY));
+
+        clock.advance(Duration.ofHours(1));
+        assertEquals(List.of(2L), ids(Window.DAY));
+        assertEquals(List.of(1L, 2L), ids(Window.WEEK));
+
+        clock.advance(Duration.ofDays(6));
+        assertEquals(List.of(2L), ids(Window.WEEK));
+
+        clock.advance(Duration.ofDays(30));
+        assertTrue(trending.getTrending(Window.WEEK, 10).isEmpty());
+    }
+
+    @Test
+    void testGetTrending_SkipsMoviesThatNoLongerExist() {
+        review(404L, 5);
+        review(7L, 1);
+
+        List<TrendingEntryResponse> top = trending.getTrending(Window.DAY, 10);
+
+        assertEquals(1, top.size());
+        assertEquals(7L, top.get(0).getMovieId());
+        assertEquals(1, top.get(0).getRank());
+    }
+
+    @Test
+    void testOnMovieChanged_DeleteDropsItsActivity() {
+        review(1L, 2);
+        review(2L, 1);
+
+        trending.onMovieChanged(new MovieChangedEvent(
+                MovieChangedEvent.Type.DELETED, 1L, "Movie 1", 2000, List.of(), 0, 0));
+
+        assertEquals(List.of(2L), ids(Window.WEEK));
+    }
+
+    private void review(Long movieId, int times) {
+        for (int i = 0; i < times; i++) {
+            trending.onReviewCreated(new ReviewCreatedEvent(100L + i, 200L + i, movieId, 4));
+        }
+    }
+
+    private void watchlist(Long movieId, int times) {
+        for (int i = 0; i < times; i++) {
+            trending.onWatchlistItemAdded(new WatchlistItemAddedEvent(100L + i, movieId));
+        }
+    }
+
+    private List<Long> ids(Window window) {
+        return trending.getTrending(window, 10).stream().map(TrendingEntryResponse::getMovieId).toList();
+    }
+
+    private static MovieSummary summary(Long id, String title) {
+        return new MovieSummary() {
+            public Long getId() { return id; }
+            public String getTitle() { return title; }
+            public int getYear() { return 2000; }
+            public long getRatingSum() { return 0; }
+            public long getRatingCount() { return 0; }
+        };
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) { this.now = now; }
+
+        void advance(Duration duration) { now = now.plus(duration); }
+
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    }
+}
@@ -0,0 +1,132 @@
+package com.popcornpicks.service.impl;
+
+import com.popcornpicks.dto.SuggestionResponse;
+import com.popcornpicks.events.MovieChangedEvent;
+import com.popcornpicks.events.RatingChangedEvent;
+import com.popcornpicks.events.RatingsRecomputedEvent;
+import com.popcornpicks.models.RatingDelta;
+import com.popcornpicks.repository.MovieRepository;
+import com.popcornpicks.repository.MovieSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class TrieSuggestionServiceTest {
+
+    private MovieRepository movieRepository;
+    private TrieSuggestionService suggestions;
+
+    @BeforeEach
+    void setUp() {
+        // a depth of 6 keeps the "past the cap" path covered by short titles
+        movieRepository = mock(MovieRepository.class);
+        suggestions = new TrieSuggestionService(movieRepository, 6, 3);
+        created(1L, "The Matrix", 40, 10);
+        created(2L, "The Matrix Reloaded", 60, 20);
+        created(3L, "Matrimony", 5, 1);
+        created(4L, "Amélie", 45, 10);
+        created(5L, "The Godfather", 90, 20);
+    }
+
+    @Test
+    void testSuggest_MatchesWordStartsByPopularity() {
+        assertEquals(List.of(2L, 1L, 3L), ids("MATR"));
+        assertEquals(List.of(5L, 2L, 1L), ids("the"));
+    }
+
+    @Test
+    void testSuggest_FoldsCaseAccentsAndPunctuation() {
+        assertEquals(List.of(4L), ids("ame"));
+        assertEquals(List.of(2L, 1L), ids("the-matrix"));
+        assertEquals("Amélie", suggestions.suggest("AMELIE", 10).get(0).getTitle());
+    }
+
+    @Test
+    void testSuggest_QueriesLongerThanTheDepthCapFilterTheCappedNode() {
+        assertEquals(List.of(2L), ids("matrix rel"));
+        assertEquals(List.of(2L, 1L), ids("the matrix"));
+        assertTrue(ids("matrix revolutions").isEmpty());
+    }
+
+    @Test
+    void testSuggest_LimitIsCappedByTopK() {
+        assertEquals(List.of(5L), ids("the", 1));
+        assertEquals(3, suggestions.suggest("t", 50).size());
+    }
+
+    @Test
+    void testOnRatingChanged_ReranksIncrementally() {
+        for (int i = 0; i < 15; i++) {
+            suggestions.onRatingChanged(new RatingChangedEvent(3L, RatingDelta.added(5)));
+        }
+
+        assertEquals(List.of(2L, 3L, 1L), ids("matr"));
+    }
+
+    @Test
+    void testOnMovieChanged_PromotesTheNextBestWhenAnEntryLeaves() {
+        created(6L, "The Thing", 10, 3);
+        assertFalse(ids("the").contains(6L));
+
+        suggestions.onMovieChanged(event(MovieChangedEvent.Type.DELETED, 5L, "The Godfather", 0, 0));
+        suggestions.onMovieChanged(event(MovieChangedEvent.Type.UPDATED, 2L, "Reloaded", 0, 0));
+
+        assertEquals(List.of(1L, 6L), ids("the"));
+        assertEquals(List.of(2L), ids("rel"));
+        assertEquals(List.of(1L, 3L), ids("matr"));
+    }
+
+    @Test
+    void testOnRatingsRecomputed_ReloadsInChunks() {
+        List<Long> ids = LongStream.rangeClosed(1, 2500).boxed().toList();
+        when(movieRepository.findSummariesByIdIn(anyCollection())).thenReturn(List.of());
+        when(movieRepository.findSummariesByIdIn(argThat(chunk -> chunk.contains(3L))))
+                .thenReturn(List.of(summary(3L, "Matrimony", 500, 100)));
+
+        suggestions.onRatingsRecomputed(new RatingsRecomputedEvent(ids));
+
+        verify(movieRepository, times(3)).findSummariesByIdIn(argThat(chunk -> chunk.size() <= 1000));
+        // every id but 3 came back missing, so only the reloaded movie is left
+        assertEquals(List.of(3L), ids("m"));
+    }
+
+    @Test
+    void testSuggest_BlankOrUnknownIsEmpty() {
+        assertTrue(ids("  --  ").isEmpty());
+        assertTrue(ids("zzz").isEmpty());
+    }
+
+    private List<Long> ids(String query) {
+        return ids(query, 10);
+    }
+
+    private List<Long> ids(String query, int limit) {
+        return suggestions.suggest(query, limit).stream().map(SuggestionResponse::getMovieId).toList();
+    }
+
+    private static MovieSummary summary(Long id, String title, long ratingSum, long ratingCount) {
+        return new MovieSummary() {
+            public Long getId() { return id; }
+            public String getTitle() { return title; }
+            public int getYear() { return 2000; }
+            public long getRatingSum() { return ratingSum; }
+            public long getRatingCount() { return ratingCount; }
+        };
+    }
+
+    private void created(Long id, String title, long ratingSum, long ratingCount) {
+        suggestions.onMovieChanged(event(MovieChangedEvent.Type.CREATED, id, title, ratingSum, ratingCount));
+    }
+
+    private static MovieChangedEvent event(MovieChangedEvent.Type type, Long id, String title,
+                                           long ratingSum, long ratingCount) {
+        return new MovieChangedEvent(type, id, title, 2000, List.of(), ratingSum, ratingCount);
+    }
+}
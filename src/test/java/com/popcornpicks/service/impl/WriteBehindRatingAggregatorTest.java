@@ -0,0 +1,93 @@
+package com.popcornpicks.service.impl;
+
+import com.popcornpicks.models.RatingDelta;
+import com.popcornpicks.repository.MovieRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class WriteBehindRatingAggregatorTest {
+
+    private MovieRepository movieRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private WriteBehindRatingAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        movieRepository = mock(MovieRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        aggregator = new WriteBehindRatingAggregator(
+                movieRepository, mock(ApplicationEventPublisher.class),
+                mock(PlatformTransactionManager.class), meterRegistry, 10
+        );
+        when(movieRepository.applyRatingDelta(anyLong(), any(RatingDelta.class))).thenReturn(1);
+    }
+
+    @Test
+    void testRecord_IsNotAppliedBeforeFlush() {
+        aggregator.record(1L, RatingDelta.added(5));
+
+        verify(movieRepository, never()).applyRatingDelta(anyLong(), any(RatingDelta.class));
+        assertEquals(1.0, meterRegistry.get("ratings.aggregation.queue.depth").gauge().value());
+    }
+
+    @Test
+    void testFlush_CoalescesDeltasPerMovie() {
+        aggregator.record(1L, RatingDelta.added(5));
+        aggregator.record(1L, RatingDelta.added(3));
+        aggregator.record(2L, RatingDelta.added(4));
+        aggregator.record(1L, RatingDelta.changed(3, 1));
+
+        aggregator.flush();
+
+        RatingDelta expected = RatingDelta.added(5).plus(RatingDelta.added(1));
+        verify(movieRepository).applyRatingDelta(1L, expected);
+        verify(movieRepository).applyRatingDelta(2L, RatingDelta.added(4));
+        verifyNoMoreInteractions(movieRepository);
+        assertEquals(0.0, meterRegistry.get("ratings.aggregation.queue.depth").gauge().value());
+        assertEquals(1, meterRegistry.get("ratings.aggregation.flush").timer().count());
+    }
+
+    @Test
+    void testFlush_SkipsDeltasThatCancelOut() {
+        aggregator.record(1L, RatingDelta.added(4));
+        aggregator.record(1L, RatingDelta.removed(4));
+
+        aggregator.flush();
+
+        verify(movieRepository, never()).applyRatingDelta(anyLong(), any(RatingDelta.class));
+    }
+
+    @Test
+    void testRecord_FullQueueFlushesSynchronously() {
+        for (int i = 0; i < 11; i++) {
+            aggregator.record((long) i, RatingDelta.added(3));
+        }
+
+        verify(movieRepository, times(10)).applyRatingDelta(anyLong(), any(RatingDelta.class));
+        assertEquals(1.0, meterRegistry.get("ratings.aggregation.queue.depth").gauge().value());
+    }
+
+    @Test
+    void testFlush_FailedFlushIsRetriedWithLaterDeltas() {
+        when(movieRepository.applyRatingDelta(anyLong(), any(RatingDelta.class)))
+                .thenThrow(new IllegalStateException("connection lost"))
+                .thenReturn(1);
+        aggregator.record(1L, RatingDelta.added(5));
+
+        aggregator.flush();
+        aggregator.record(1L, RatingDelta.added(3));
+        aggregator.flush();
+
+        verify(movieRepository).applyRatingDelta(1L, RatingDelta.added(5).plus(RatingDelta.added(3)));
+        aggregator.flush();
+        verify(movieRepository, times(2)).applyRatingDelta(anyLong(), any(RatingDelta.class));
+    }
+}